@@ -0,0 +1,137 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.ExerciseApplication;
+import org.example.dto.PatientRequest;
+import org.example.entity.Encounter;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.mapper.PatientGraphMapper;
+import org.example.repository.PatientRepository;
+import org.example.util.UuidV7;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application without a web server against an in-memory H2 database
+ * (or the datasource passed with -Dspring.datasource.url) and seeds patient graphs.
+ */
+public final class ApplicationFixture {
+
+    private static final String[] FAMILY_NAMES = {"Otieno", "Wanjiku", "Kamau", "Achieng", "Mwangi", "Njoroge", "Odhiambo", "Chebet"};
+    private static final String[] GIVEN_NAMES = {"Ann", "Brian", "Faith", "Kevin", "Mercy", "Peter", "Grace", "Dennis"};
+
+    private ApplicationFixture() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ExerciseApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.generate_statistics=true")
+                .properties(properties)
+                .run();
+    }
+
+    public static Statistics statistics(ConfigurableApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Insert {@code patients} patients, each with the given number of encounters and
+     * observations per encounter, in batches of 200.
+     */
+    public static void seedPatients(ConfigurableApplicationContext context, int patients, int encounters, int observationsPerEncounter) {
+        PatientGraphMapper graphMapper = context.getBean(PatientGraphMapper.class);
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        Random random = new Random(42);
+
+        for (int from = 0; from < patients; from += 200) {
+            int to = Math.min(patients, from + 200);
+            List<Patient> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                batch.add(graphMapper.toPatientGraph(patientRequest(i, encounters, observationsPerEncounter, random)));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                patientRepository.saveAll(batch);
+                patientRepository.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    /**
+     * A detached patient graph shaped like one loaded from the database: ids and timestamps
+     * set, and every observation (including those of encounters) in the patient's list.
+     */
+    public static Patient patientGraph(int index, int encounters, int observationsPerEncounter, Random random) {
+        Patient patient = new PatientGraphMapper().toPatientGraph(patientRequest(index, encounters, observationsPerEncounter, random));
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        patient.setId(UuidV7.randomUuid());
+        patient.setCreatedAt(now);
+        patient.setUpdatedAt(now);
+        patient.setVersion(0L);
+        for (Encounter encounter : patient.getEncounters()) {
+            encounter.setId(UuidV7.randomUuid());
+            encounter.setCreatedAt(now);
+            encounter.setUpdatedAt(now);
+            for (Observation observation : encounter.getObservations()) {
+                observation.setId(UuidV7.randomUuid());
+                observation.setCreatedAt(now);
+                observation.setUpdatedAt(now);
+                patient.getObservations().add(observation);
+            }
+        }
+        return patient;
+    }
+
+    static PatientRequest patientRequest(int index, int encounters, int observationsPerEncounter, Random random) {
+        PatientRequest request = new PatientRequest();
+        request.setIdentifier("BM-" + index);
+        request.setUsername("bm" + index);
+        request.setEmail("bm" + index + "@example.org");
+        request.setFamilyName(FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)]);
+        request.setGivenName(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+        request.setBirthDate(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(30_000)));
+        request.setGender(random.nextBoolean() ? Patient.Gender.FEMALE : Patient.Gender.MALE);
+
+        List<PatientRequest.EncounterRequest> encounterRequests = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 8, 0);
+        for (int e = 0; e < encounters; e++) {
+            PatientRequest.EncounterRequest encounter = new PatientRequest.EncounterRequest();
+            encounter.setStart(start.plusDays(30L * e));
+            encounter.setEndTime(start.plusDays(30L * e).plusHours(1));
+            encounter.setEncounterClass("OUTPATIENT");
+            List<PatientRequest.ObservationRequest> observations = new ArrayList<>();
+            for (int o = 0; o < observationsPerEncounter; o++) {
+                PatientRequest.ObservationRequest observation = new PatientRequest.ObservationRequest();
+                observation.setCode(o % 2 == 0 ? "8867-4" : "8310-5");
+                observation.setValue(String.valueOf(60 + random.nextInt(40)));
+                observation.setEffectiveDateTime(encounter.getStart().plusMinutes(o));
+                observations.add(observation);
+            }
+            encounter.setObservations(observations);
+            encounterRequests.add(encounter);
+        }
+        request.setEncounters(encounterRequests);
+        return request;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.dto.PatientRequest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Generates a synthetic dataset of {@code gen.patients} patients (see
+ * {@link SyntheticPatientGenerator}) and writes it either as NDJSON files for
+ * {@code POST /api/patients/bulk} or straight into the database with batched inserts.
+ * The same seed always yields the same dataset, so a range can be split over several
+ * processes with {@code gen.first} and the results are identical to one run.
+ * <p>
+ * Settings are system properties:
+ * <ul>
+ *   <li>{@code gen.seed}, {@code gen.patients}, {@code gen.first} (index of the first patient)</li>
+ *   <li>{@code gen.as-of} (end of the history, ISO date-time), {@code gen.years} (history length),
+ *       {@code gen.max-encounters} (per patient), {@code gen.vitals-hours} (inpatient vitals interval)</li>
+ *   <li>{@code gen.format}: {@code ndjson} with {@code gen.out} (directory) and {@code gen.per-file}
+ *       (patients per file), or {@code jdbc} with {@code gen.jdbc.url}, {@code gen.jdbc.user},
+ *       {@code gen.jdbc.password} and {@code gen.batch-size} (patients per transaction)</li>
+ * </ul>
+ */
+public final class DatasetGenerator {
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Receives the generated patients in index order.
+     */
+    interface Sink extends AutoCloseable {
+
+        void write(long index, PatientRequest patient) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long seed = Long.getLong("gen.seed", 42);
+        long patients = Long.getLong("gen.patients", 100_000);
+        long first = Long.getLong("gen.first", 0);
+        // a fixed default keeps the dataset reproducible from one day to the next
+        LocalDateTime asOf = LocalDateTime.parse(System.getProperty("gen.as-of", "2025-01-01T00:00:00"));
+        SyntheticPatientGenerator generator = new SyntheticPatientGenerator(seed, asOf,
+                Integer.getInteger("gen.years", 10),
+                Integer.getInteger("gen.max-encounters", 500),
+                Duration.ofHours(Integer.getInteger("gen.vitals-hours", 4)));
+
+        String format = System.getProperty("gen.format", "ndjson");
+        System.out.printf("Generating patients %d..%d of seed %d as %s%n", first, first + patients - 1, seed, format);
+        long encounters = 0;
+        long observations = 0;
+        long startedAt = System.nanoTime();
+        long reportEvery = Math.max(1, patients / 20);
+        try (Sink sink = sink(format, generator)) {
+            for (long index = first; index < first + patients; index++) {
+                PatientRequest patient = generator.patient(index);
+                sink.write(index, patient);
+                encounters += patient.getEncounters().size();
+                for (PatientRequest.EncounterRequest encounter : patient.getEncounters()) {
+                    observations += encounter.getObservations().size();
+                }
+                long done = index - first + 1;
+                if (done % reportEvery == 0 || done == patients) {
+                    System.out.printf("%,d patients, %,d encounters, %,d observations (%.0f patients/s)%n",
+                            done, encounters, observations, done / ((System.nanoTime() - startedAt) / 1e9));
+                }
+            }
+        }
+    }
+
+    private static Sink sink(String format, SyntheticPatientGenerator generator) throws Exception {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> new NdjsonSink(Path.of(System.getProperty("gen.out", "target/dataset")),
+                    Long.getLong("gen.per-file", 10_000));
+            case "jdbc" -> new JdbcDatasetWriter(generator,
+                    DriverManager.getConnection(System.getProperty("gen.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                            System.getProperty("gen.jdbc.user", "postgres"), System.getProperty("gen.jdbc.password", "")),
+                    Integer.getInteger("gen.batch-size", 500));
+            default -> throw new IllegalArgumentException("Unknown gen.format " + format + "; expected ndjson or jdbc");
+        };
+    }
+
+    /**
+     * One {@code PatientRequest} per line, as the bulk import reads them, rolled over to a
+     * new file every {@code perFile} patients so each file is one reasonably sized request.
+     * Files are named after their first patient, so shards of one seed never collide.
+     */
+    private static final class NdjsonSink implements Sink {
+
+        private final ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        private final Path directory;
+        private final long perFile;
+        private Writer writer;
+        private long written;
+
+        NdjsonSink(Path directory, long perFile) throws IOException {
+            this.directory = Files.createDirectories(directory);
+            this.perFile = Math.max(1, perFile);
+        }
+
+        @Override
+        public void write(long index, PatientRequest patient) throws IOException {
+            if (writer == null || written == perFile) {
+                close();
+                writer = Files.newBufferedWriter(directory.resolve(String.format(Locale.ROOT, "patients-%09d.ndjson", index)), StandardCharsets.UTF_8);
+                written = 0;
+            }
+            writer.write(objectMapper.writeValueAsString(patient));
+            writer.write('\n');
+            written++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.benchmark;
+
+import org.example.dto.EncounterResponse;
+import org.example.dto.ObservationResponse;
+import org.example.dto.PatientFetchPlan;
+import org.example.dto.PatientResponse;
+import org.example.entity.Encounter;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.mapper.PatientMapper;
+import org.example.mapper.PatientMapperImpl;
+import org.example.service.impl.ObservationServiceImpl;
+import org.example.service.impl.PatientServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity to DTO mapping paths on one detached patient graph, without a
+ * database: the service's setter-based {@code convertToPatientResponse}, MapStruct's
+ * {@code PatientMapper.toResponse}, the two encounter mappers (setters and the static
+ * builder) and the observation mapper. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} (bytes per mapped graph) as well as the time.
+ * <p>
+ * The patient-level paths produce the full graph (encounters with their observations,
+ * plus the patient's observations); the encounter and observation paths map every
+ * encounter or observation of the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    // private mappers, called as the service calls them
+    private static final MethodHandle CONVERT_TO_PATIENT_RESPONSE;
+    private static final MethodHandle TO_ENCOUNTER_RESPONSE;
+    private static final MethodHandle MAP_OBSERVATION_TO_RESPONSE;
+
+    static {
+        try {
+            MethodHandles.Lookup patientService = MethodHandles.privateLookupIn(PatientServiceImpl.class, MethodHandles.lookup());
+            CONVERT_TO_PATIENT_RESPONSE = patientService.findVirtual(PatientServiceImpl.class, "convertToPatientResponse",
+                    MethodType.methodType(PatientResponse.class, Patient.class, PatientFetchPlan.class, List.class));
+            TO_ENCOUNTER_RESPONSE = patientService.findVirtual(PatientServiceImpl.class, "toEncounterResponse",
+                    MethodType.methodType(EncounterResponse.class, Encounter.class));
+            MethodHandles.Lookup observationService = MethodHandles.privateLookupIn(ObservationServiceImpl.class, MethodHandles.lookup());
+            MAP_OBSERVATION_TO_RESPONSE = observationService.findVirtual(ObservationServiceImpl.class, "mapToResponse",
+                    MethodType.methodType(ObservationResponse.class, Observation.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @Param({"5", "50"})
+    public int encounters;
+
+    @Param({"8"})
+    public int observationsPerEncounter;
+
+    private Patient patient;
+    private PatientServiceImpl patientService;
+    private ObservationServiceImpl observationService;
+    private PatientMapper patientMapper;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        patient = ApplicationFixture.patientGraph(0, encounters, observationsPerEncounter, new Random(42));
+        // the mapping methods use none of the services' collaborators
+        patientService = withoutCollaborators(PatientServiceImpl.class);
+        observationService = withoutCollaborators(ObservationServiceImpl.class);
+        patientMapper = new PatientMapperImpl();
+    }
+
+    private static <T> T withoutCollaborators(Class<T> type) throws ReflectiveOperationException {
+        Constructor<?> constructor = type.getDeclaredConstructors()[0];
+        return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+    }
+
+    @Benchmark
+    public PatientResponse serviceConvertToPatientResponse() throws Throwable {
+        return (PatientResponse) CONVERT_TO_PATIENT_RESPONSE.invokeExact(patientService, patient, PatientFetchPlan.FULL, patient.getObservations());
+    }
+
+    @Benchmark
+    public PatientResponse mapStructToResponse() {
+        return patientMapper.toResponse(patient);
+    }
+
+    @Benchmark
+    public List<EncounterResponse> encounterSetters() throws Throwable {
+        List<Encounter> encounters = patient.getEncounters();
+        EncounterResponse[] responses = new EncounterResponse[encounters.size()];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = (EncounterResponse) TO_ENCOUNTER_RESPONSE.invokeExact(patientService, encounters.get(i));
+        }
+        return List.of(responses);
+    }
+
+    @Benchmark
+    public List<EncounterResponse> encounterStaticBuilder() {
+        List<Encounter> encounters = patient.getEncounters();
+        EncounterResponse[] responses = new EncounterResponse[encounters.size()];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = PatientServiceImpl.convertToEncounterResponse(encounters.get(i));
+        }
+        return List.of(responses);
+    }
+
+    @Benchmark
+    public List<ObservationResponse> observationMapToResponse() throws Throwable {
+        List<Observation> observations = patient.getObservations();
+        ObservationResponse[] responses = new ObservationResponse[observations.size()];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = (ObservationResponse) MAP_OBSERVATION_TO_RESPONSE.invokeExact(observationService, observations.get(i));
+        }
+        return List.of(responses);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.entity.Patient;
+import org.example.export.ExportFormat;
+import org.example.export.PatientExportRow;
+import org.example.repository.EncounterRepository;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.example.service.impl.ExportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Cost of writing a patient export through {@code ExportServiceImpl}, without a database:
+ * the repository hands out generated rows lazily, as the cursor does, and the output is
+ * discarded. Run with {@code -prof gc} and a small heap, for example
+ * {@code -Djmh.args="ExportBenchmark -prof gc -jvmArgs -Xmx128m"}: {@code gc.alloc.rate.norm}
+ * divided by {@code rows} should stay flat from 10k to 1M rows, and the 1M-row export
+ * should finish without running out of heap, because no row is kept once it is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 1, 8, 30);
+
+    @Param({"10000", "1000000"})
+    public long rows;
+
+    @Param({"NDJSON", "CSV"})
+    public ExportFormat format;
+
+    private ExportServiceImpl exportService;
+
+    @Setup
+    public void setUp() {
+        PatientRepository patientRepository = (PatientRepository) Proxy.newProxyInstance(
+                PatientRepository.class.getClassLoader(), new Class<?>[]{PatientRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("streamForExport")) {
+                        return LongStream.range(0, rows).mapToObj(ExportBenchmark::row);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        // the patient export uses neither of the other repositories
+        exportService = new ExportServiceImpl(patientRepository, (EncounterRepository) null, (ObservationRepository) null,
+                JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+    }
+
+    @Benchmark
+    public long exportPatients() throws IOException {
+        return exportService.exportPatients(null, format, OutputStream.nullOutputStream());
+    }
+
+    private static PatientExportRow row(long index) {
+        Patient.Gender[] genders = Patient.Gender.values();
+        return new PatientExportRow(new UUID(index, ~index), "MRN-" + index, "Given" + index, "Family" + index,
+                LocalDate.of(1950, 1, 1).plusDays(index % 20_000), genders[(int) (index % genders.length)],
+                "user" + index, "user" + index + "@example.org", UPDATED, UPDATED);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running instance: each of {@code clients} simulated
+ * clients sends a GET, waits for the response and sends the next one. Requests are
+ * asynchronous, so ten thousand clients need neither ten thousand threads here nor a
+ * faster driver than the server. Prints throughput and latency percentiles of the
+ * requests completed in the measurement window; the warmup window is discarded.
+ * <p>
+ * Settings are system properties: {@code load.url} (comma-separated; clients
+ * are spread over them), {@code load.clients}, {@code load.warmup} and
+ * {@code load.duration} (seconds) and {@code load.timeout} (seconds per request).
+ */
+public final class HttpLoadDriver {
+
+    private HttpLoadDriver() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<URI> targets = Arrays.stream(System.getProperty("load.url", "http://localhost:8080/api/patients?family=Ot").split(","))
+                .map(String::trim)
+                .map(URI::create)
+                .toList();
+        int clients = Integer.getInteger("load.clients", 1000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 15));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+        Duration timeout = Duration.ofSeconds(Integer.getInteger("load.timeout", 30));
+
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(callbacks)
+                .build();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(clients);
+        List<Client> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, HttpRequest.newBuilder(targets.get(i % targets.size())).timeout(timeout).GET().build(),
+                    measureFrom, measureTo, done);
+            running.add(client);
+            client.send();
+        }
+        System.out.printf("%d clients against %s: %ss warmup, %ss measured%n", clients, targets, warmup.toSeconds(), duration.toSeconds());
+        done.await(warmup.plus(duration).plus(timeout).toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        callbacks.shutdownNow();
+
+        long errors = running.stream().mapToLong(client -> client.errors.sum()).sum();
+        long[] latencies = running.stream()
+                .flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.count))
+                .sorted()
+                .toArray();
+        System.out.printf("requests %d, errors %d, throughput %.1f req/s%n",
+                latencies.length, errors, latencies.length / (double) duration.toSeconds());
+        if (latencies.length > 0) {
+            System.out.printf("latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * One simulated client. Its callbacks never overlap, so its samples need no locking.
+     */
+    private static final class Client {
+
+        private final HttpClient http;
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long measureTo;
+        private final CountDownLatch done;
+        private final LongAdder errors = new LongAdder();
+
+        private long[] latencies = new long[256];
+        private int count;
+
+        Client(HttpClient http, HttpRequest request, long measureFrom, long measureTo, CountDownLatch done) {
+            this.http = http;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+            this.done = done;
+        }
+
+        void send() {
+            long sentAt = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long completedAt = System.nanoTime();
+                boolean measured = sentAt >= measureFrom && completedAt <= measureTo;
+                if (failure != null || response.statusCode() >= 400) {
+                    if (measured) {
+                        errors.increment();
+                    }
+                } else if (measured) {
+                    record(completedAt - sentAt);
+                }
+                if (completedAt < measureTo) {
+                    send();
+                } else {
+                    done.countDown();
+                }
+            });
+        }
+
+        private void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.benchmark;
+
+import org.example.dto.PatientRequest;
+import org.example.util.NameNormalizer;
+import org.example.util.QuantityParser;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Writes generated patients straight into an existing schema (created by starting the
+ * application once against the database) with batched inserts, committing every
+ * {@code batchSize} patients. Rows get what the application would have stored: version 7
+ * ids stamped with the record's own time, normalized names and the numeric value and
+ * unit parsed from observation values. Ids are drawn from a stream of their own, so a
+ * patient's ids are as reproducible as its data.
+ * <p>
+ * Derived state is not written: {@code latest_observations} is rebuilt by the application
+ * on startup when empty (or with {@code POST /api/patients/observations/latest/rebuild}).
+ */
+final class JdbcDatasetWriter implements DatasetGenerator.Sink {
+
+    private static final String INSERT_PATIENT = "INSERT INTO patients (id, identifier, given_name, family_name, given_name_norm, "
+            + "family_name_norm, birth_date, username, email, gender, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ENCOUNTER = "INSERT INTO encounters (id, patient_id, \"start\", end_time, encounter_class, "
+            + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_OBSERVATION = "INSERT INTO observations (id, patient_id, encounter_id, code, \"value\", "
+            + "value_numeric, unit, effective_date_time, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final SyntheticPatientGenerator generator;
+    private final Connection connection;
+    private final PreparedStatement patients;
+    private final PreparedStatement encounters;
+    private final PreparedStatement observations;
+    private final int batchSize;
+    private int pending;
+
+    JdbcDatasetWriter(SyntheticPatientGenerator generator, Connection connection, int batchSize) throws SQLException {
+        this.generator = generator;
+        this.connection = connection;
+        this.batchSize = Math.max(1, batchSize);
+        connection.setAutoCommit(false);
+        this.patients = connection.prepareStatement(INSERT_PATIENT);
+        this.encounters = connection.prepareStatement(INSERT_ENCOUNTER);
+        this.observations = connection.prepareStatement(INSERT_OBSERVATION);
+    }
+
+    @Override
+    public void write(long index, PatientRequest patient) throws SQLException {
+        SplittableRandom ids = generator.random(index, 1);
+        // registered up to a month before the first visit, never before birth
+        LocalDateTime registered = patient.getEncounters().isEmpty()
+                ? patient.getBirthDate().atStartOfDay().plusDays(ids.nextLong(30))
+                : patient.getEncounters().get(0).getStart().minusMinutes(ids.nextLong(30 * 24 * 60));
+        if (registered.isBefore(patient.getBirthDate().atStartOfDay())) {
+            registered = patient.getBirthDate().atStartOfDay();
+        }
+        UUID patientId = uuid(registered, ids);
+
+        patients.setObject(1, patientId);
+        patients.setString(2, patient.getIdentifier());
+        patients.setString(3, patient.getGivenName());
+        patients.setString(4, patient.getFamilyName());
+        patients.setString(5, NameNormalizer.normalize(patient.getGivenName()));
+        patients.setString(6, NameNormalizer.normalize(patient.getFamilyName()));
+        patients.setObject(7, patient.getBirthDate());
+        patients.setString(8, patient.getUsername());
+        patients.setString(9, patient.getEmail());
+        patients.setString(10, patient.getGender().name());
+        patients.setObject(11, registered);
+        patients.setObject(12, registered);
+        patients.addBatch();
+
+        for (PatientRequest.EncounterRequest encounter : patient.getEncounters()) {
+            UUID encounterId = uuid(encounter.getStart(), ids);
+            encounters.setObject(1, encounterId);
+            encounters.setObject(2, patientId);
+            encounters.setObject(3, encounter.getStart());
+            encounters.setObject(4, encounter.getEndTime());
+            encounters.setString(5, encounter.getEncounterClass());
+            encounters.setObject(6, encounter.getStart());
+            encounters.setObject(7, encounter.getEndTime() != null ? encounter.getEndTime() : encounter.getStart());
+            encounters.addBatch();
+
+            for (PatientRequest.ObservationRequest observation : encounter.getObservations()) {
+                QuantityParser.Quantity quantity = QuantityParser.parse(observation.getValue());
+                observations.setObject(1, uuid(observation.getEffectiveDateTime(), ids));
+                observations.setObject(2, patientId);
+                observations.setObject(3, encounterId);
+                observations.setString(4, observation.getCode());
+                observations.setString(5, observation.getValue());
+                if (quantity != null) {
+                    observations.setDouble(6, quantity.value());
+                } else {
+                    observations.setNull(6, Types.DOUBLE);
+                }
+                observations.setString(7, observation.getUnit() != null ? observation.getUnit() : quantity != null ? quantity.unit() : null);
+                observations.setObject(8, observation.getEffectiveDateTime());
+                observations.setObject(9, observation.getEffectiveDateTime());
+                observations.setObject(10, observation.getEffectiveDateTime());
+                observations.addBatch();
+            }
+        }
+
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        // parents first; the foreign keys are checked per statement
+        patients.executeBatch();
+        encounters.executeBatch();
+        observations.executeBatch();
+        connection.commit();
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (pending > 0) {
+                flush();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /** A version 7 id for a record created at {@code time} (taken as UTC). */
+    private static UUID uuid(LocalDateTime time, SplittableRandom random) {
+        long msb = (time.toInstant(ZoneOffset.UTC).toEpochMilli() << 16) | (0x7L << 12) | random.nextInt(1 << 12);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
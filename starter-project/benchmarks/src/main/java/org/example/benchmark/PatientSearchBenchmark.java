@@ -0,0 +1,101 @@
+package org.example.benchmark;
+
+import org.example.dto.PatientResponse;
+import org.example.dto.PatientSummaryResponse;
+import org.example.mapper.PatientMapper;
+import org.example.repository.PatientRepository;
+import org.example.service.PatientService;
+import org.example.specification.NameMatchMode;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search page latency and statements per page: the entity + MapStruct path that
+ * search used before (lazily loading every hit's encounters and observations)
+ * against the demographic constructor-expression projection.
+ * Statements per page are printed after every measurement iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSearchBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private PatientRepository patientRepository;
+    private PatientMapper patientMapper;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private PageRequest pageRequest;
+    private long pages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationFixture.start();
+        ApplicationFixture.seedPatients(context, 2_000, 10, 6);
+        patientService = context.getBean(PatientService.class);
+        patientRepository = context.getBean(PatientRepository.class);
+        patientMapper = context.getBean(PatientMapper.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        statistics = ApplicationFixture.statistics(context);
+        pageRequest = PageRequest.of(3, pageSize, Sort.by("familyName").ascending());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        pages = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        if (pages > 0) {
+            System.out.printf("%n  statements/page: %.1f, entities loaded/page: %.1f%n",
+                    (double) statistics.getPrepareStatementCount() / pages,
+                    (double) statistics.getEntityLoadCount() / pages);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PatientResponse> entityMappedSearch() {
+        pages++;
+        return transactionTemplate.execute(status ->
+                patientRepository.findAll(pageRequest).map(patientMapper::toResponse));
+    }
+
+    @Benchmark
+    public Page<PatientSummaryResponse> projectedSearch() {
+        pages++;
+        return patientService.searchPatients(null, null, NameMatchMode.PREFIX, null, null, null, null, pageRequest);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.example.entity.Patient;
+import org.example.specification.BaseSpecification;
+import org.example.specification.NameMatchMode;
+import org.example.specification.PatientSpecifications;
+import org.example.specification.SearchCriteria;
+import org.example.util.NameNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the three ways of writing the patient search predicate for the same filters
+ * (family and given name prefix, birth date range): the composed {@code PatientSpecifications},
+ * the criteria-list {@code BaseSpecification} and one hand-written lambda. Each call builds
+ * the criteria query and creates the JPA query; with {@code execute=true} it also runs it
+ * against a seeded H2 database for the first page, which adds SQL translation and the
+ * (identical) database time. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchPredicateBenchmark {
+
+    private static final String FAMILY = "Oti";
+    private static final String GIVEN = "An";
+    private static final LocalDate BORN_FROM = LocalDate.of(1950, 1, 1);
+    private static final LocalDate BORN_TO = LocalDate.of(1990, 12, 31);
+
+    @Param({"false", "true"})
+    public boolean execute;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationFixture.start();
+        ApplicationFixture.seedPatients(context, 2_000, 0, 0);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Object patientSpecifications() {
+        return run(PatientSpecifications.withSpecifications(
+                PatientSpecifications.hasFamilyName(FAMILY, NameMatchMode.PREFIX),
+                PatientSpecifications.hasGivenName(GIVEN, NameMatchMode.PREFIX),
+                PatientSpecifications.hasIdentifier(null),
+                PatientSpecifications.hasBirthDateBetween(BORN_FROM, BORN_TO)));
+    }
+
+    @Benchmark
+    public Object baseSpecification() {
+        return run(new BaseSpecification<>(List.of(
+                SearchCriteria.prefix("familyName", FAMILY),
+                SearchCriteria.prefix("givenName", GIVEN),
+                SearchCriteria.dateBetween("birthDate", BORN_FROM, BORN_TO))));
+    }
+
+    @Benchmark
+    public Object inlineLambda() {
+        String family = NameNormalizer.normalize(FAMILY);
+        String given = NameNormalizer.normalize(GIVEN);
+        return run((root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.like(root.get("familyNameNormalized"), PatientSpecifications.escapeLike(family) + "%", PatientSpecifications.LIKE_ESCAPE),
+                criteriaBuilder.like(root.get("givenNameNormalized"), PatientSpecifications.escapeLike(given) + "%", PatientSpecifications.LIKE_ESCAPE),
+                criteriaBuilder.between(root.get("birthDate"), BORN_FROM, BORN_TO)));
+    }
+
+    private Object run(Specification<Patient> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Patient> query = criteriaBuilder.createQuery(Patient.class);
+        Root<Patient> root = query.from(Patient.class);
+        query.where(specification.toPredicate(root, query, criteriaBuilder));
+        TypedQuery<Patient> typedQuery = entityManager.createQuery(query).setMaxResults(10);
+        if (!execute) {
+            return typedQuery;
+        }
+        List<Patient> patients = typedQuery.getResultList();
+        entityManager.clear();
+        return patients;
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.benchmark;
+
+import org.example.dto.PatientRequest;
+import org.example.entity.Patient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic patients for scale tests. Patient {@code i} of a seed is always
+ * the same graph, whichever range is generated or in which order, so large datasets can
+ * be produced in parallel shards and regenerated exactly.
+ * <ul>
+ *   <li>Names follow a Zipf distribution over the pools below, so a few names are very common.</li>
+ *   <li>Ages follow a population pyramid skewed young, with fewer patients in each older band.</li>
+ *   <li>Encounters per patient are log-normal (median 3, a long tail into the hundreds),
+ *       scaled up for older and down for younger patients, and spread over the history window.</li>
+ *   <li>Each encounter records a set of vitals at its start. Inpatient stays repeat them every
+ *       {@code vitalsInterval}, emergency visits hourly. Values drift around a per-patient baseline.</li>
+ * </ul>
+ */
+public final class SyntheticPatientGenerator {
+
+    private static final String[] FAMILY_NAMES = {
+            "Otieno", "Wanjiku", "Kamau", "Achieng", "Mwangi", "Njoroge", "Odhiambo", "Chebet", "Mutua", "Wambui",
+            "Omondi", "Kipchoge", "Njeri", "Kariuki", "Onyango", "Cherono", "Macharia", "Atieno", "Kiprono", "Muthoni",
+            "Ochieng", "Wairimu", "Kimani", "Akinyi", "Gitau", "Jepkemoi", "Owino", "Nyambura", "Rotich", "Karanja",
+            "Okoth", "Wanjiru", "Ndungu", "Awino", "Kibet", "Moraa", "Nyongesa", "Wafula", "Barasa", "Korir",
+            "Smith", "Patel", "Müller", "García", "Nguyen", "O'Brien", "Da Silva", "Kowalski", "Haddad", "Okafor"};
+    private static final String[] FEMALE_NAMES = {
+            "Grace", "Faith", "Mercy", "Ann", "Mary", "Esther", "Joy", "Winnie", "Caroline", "Lucy",
+            "Purity", "Naomi", "Sharon", "Janet", "Ruth", "Eunice", "Agnes", "Beatrice", "Zawadi", "Amani",
+            "Chloé", "Fatuma", "Halima", "Irene", "Josephine"};
+    private static final String[] MALE_NAMES = {
+            "Brian", "Kevin", "Peter", "Dennis", "John", "James", "David", "Joseph", "Samuel", "Daniel",
+            "Collins", "Victor", "Stephen", "Michael", "Paul", "George", "Francis", "Eric", "Baraka", "Juma",
+            "José", "Hassan", "Isaac", "Kennedy", "Moses"};
+
+    // share of patients per age band, youngest first (roughly a young, growing population)
+    private static final int[] AGE_BANDS = {0, 15, 30, 45, 60, 75, 100};
+    private static final double[] AGE_BAND_SHARES = {0.22, 0.26, 0.21, 0.15, 0.11, 0.05};
+
+    private static final String[] ENCOUNTER_CLASSES = {"OUTPATIENT", "AMBULATORY", "EMERGENCY", "INPATIENT", "VIRTUAL"};
+    private static final double[] ENCOUNTER_CLASS_SHARES = {0.60, 0.15, 0.10, 0.08, 0.07};
+
+    private final long seed;
+    private final LocalDateTime asOf;
+    private final int historyYears;
+    private final int maxEncounters;
+    private final Duration vitalsInterval;
+
+    private final WeightedChoice familyNames = WeightedChoice.zipf(FAMILY_NAMES.length, 1.0);
+    private final WeightedChoice femaleNames = WeightedChoice.zipf(FEMALE_NAMES.length, 0.9);
+    private final WeightedChoice maleNames = WeightedChoice.zipf(MALE_NAMES.length, 0.9);
+    private final WeightedChoice ageBands = new WeightedChoice(AGE_BAND_SHARES);
+    private final WeightedChoice encounterClasses = new WeightedChoice(ENCOUNTER_CLASS_SHARES);
+
+    /**
+     * @param seed Seed of the dataset
+     * @param asOf End of the simulated history; nothing happens after it
+     * @param historyYears Length of the encounter history before {@code asOf}
+     * @param maxEncounters Cap on encounters per patient
+     * @param vitalsInterval Interval between vitals during an inpatient stay
+     */
+    public SyntheticPatientGenerator(long seed, LocalDateTime asOf, int historyYears, int maxEncounters, Duration vitalsInterval) {
+        if (historyYears < 1 || maxEncounters < 0 || vitalsInterval.isNegative() || vitalsInterval.isZero()) {
+            throw new IllegalArgumentException("History must be at least a year, encounters not negative and the vitals interval positive");
+        }
+        this.seed = seed;
+        this.asOf = asOf;
+        this.historyYears = historyYears;
+        this.maxEncounters = maxEncounters;
+        this.vitalsInterval = vitalsInterval;
+    }
+
+    /**
+     * A random generator for one patient, independent of every other patient's.
+     * @param stream Distinguishes independent streams of the same patient
+     */
+    public SplittableRandom random(long index, int stream) {
+        return new SplittableRandom(mix(mix(seed) ^ (index * 0x9E3779B97F4A7C15L + stream)));
+    }
+
+    /**
+     * Patient {@code index} of the dataset, with its encounters and their observations in time order.
+     */
+    public PatientRequest patient(long index) {
+        SplittableRandom random = random(index, 0);
+        PatientRequest patient = new PatientRequest();
+        patient.setIdentifier(String.format(Locale.ROOT, "SYN-%d-%09d", seed, index));
+        patient.setUsername(String.format(Locale.ROOT, "syn%d_%d", seed, index));
+        patient.setEmail(String.format(Locale.ROOT, "syn%d.%d@example.org", seed, index));
+
+        double genderDraw = random.nextDouble();
+        Patient.Gender gender = genderDraw < 0.505 ? Patient.Gender.FEMALE
+                : genderDraw < 0.995 ? Patient.Gender.MALE
+                : genderDraw < 0.998 ? Patient.Gender.OTHER
+                : Patient.Gender.UNKNOWN;
+        patient.setGender(gender);
+        boolean female = gender == Patient.Gender.FEMALE || gender != Patient.Gender.MALE && random.nextBoolean();
+        patient.setGivenName(female ? FEMALE_NAMES[femaleNames.next(random)] : MALE_NAMES[maleNames.next(random)]);
+        patient.setFamilyName(FAMILY_NAMES[familyNames.next(random)]);
+
+        int band = ageBands.next(random);
+        long ageDays = (long) (AGE_BANDS[band] * 365.25 + random.nextDouble() * (AGE_BANDS[band + 1] - AGE_BANDS[band]) * 365.25);
+        LocalDate birthDate = asOf.toLocalDate().minusDays(ageDays);
+        patient.setBirthDate(birthDate);
+
+        Vitals vitals = new Vitals(random, ageDays / 365.25);
+        double ageFactor = ageDays < 15 * 365 ? 0.7 : ageDays >= 65 * 365 ? 2.0 : 1.0;
+        int encounterCount = (int) Math.min(maxEncounters, Math.round(ageFactor * Math.exp(Math.log(3) + 1.1 * gaussian(random))));
+
+        LocalDateTime historyStart = asOf.minusYears(historyYears);
+        if (historyStart.isBefore(birthDate.atStartOfDay())) {
+            historyStart = birthDate.atStartOfDay();
+        }
+        long historyMinutes = Math.max(1, ChronoUnit.MINUTES.between(historyStart, asOf));
+        long[] offsets = new long[encounterCount];
+        for (int i = 0; i < encounterCount; i++) {
+            offsets[i] = random.nextLong(historyMinutes);
+        }
+        Arrays.sort(offsets);
+
+        List<PatientRequest.EncounterRequest> encounters = new ArrayList<>(encounterCount);
+        Set<LocalDateTime> measuredAt = new HashSet<>();
+        for (long offset : offsets) {
+            encounters.add(encounter(historyStart.plusMinutes(offset), random, vitals, measuredAt));
+        }
+        patient.setEncounters(encounters);
+        return patient;
+    }
+
+    /**
+     * Vitals are skipped at times in {@code measuredAt}, where an overlapping encounter already
+     * recorded them: a patient has one observation of a code per effective time.
+     */
+    private PatientRequest.EncounterRequest encounter(LocalDateTime start, SplittableRandom random, Vitals vitals, Set<LocalDateTime> measuredAt) {
+        String encounterClass = ENCOUNTER_CLASSES[encounterClasses.next(random)];
+        Duration length = switch (encounterClass) {
+            case "INPATIENT" -> Duration.ofMinutes(Math.round(60 * 24 * 3 * Math.exp(0.7 * gaussian(random))));
+            case "EMERGENCY" -> Duration.ofMinutes(60 + random.nextLong(7 * 60));
+            case "VIRTUAL" -> Duration.ofMinutes(10 + random.nextLong(20));
+            default -> Duration.ofMinutes(15 + random.nextLong(45));
+        };
+        Duration interval = switch (encounterClass) {
+            case "INPATIENT" -> vitalsInterval;
+            case "EMERGENCY" -> Duration.ofHours(1);
+            default -> null;
+        };
+        LocalDateTime end = start.plus(length);
+
+        PatientRequest.EncounterRequest encounter = new PatientRequest.EncounterRequest();
+        encounter.setStart(start);
+        // a stay that runs past the end of the history is still open
+        encounter.setEndTime(end.isAfter(asOf) ? null : end);
+        encounter.setEncounterClass(encounterClass);
+
+        List<PatientRequest.ObservationRequest> observations = new ArrayList<>();
+        LocalDateTime last = end.isAfter(asOf) ? asOf : end;
+        LocalDateTime at = start.plusMinutes(5);
+        // virtual visits have no measured vitals
+        if (!"VIRTUAL".equals(encounterClass)) {
+            if (measuredAt.add(at)) {
+                vitals.record(observations, at, random, true);
+            }
+            while (interval != null && !(at = at.plus(interval)).isAfter(last)) {
+                if (measuredAt.add(at)) {
+                    vitals.record(observations, at, random, false);
+                }
+            }
+        }
+        encounter.setObservations(observations);
+        return encounter;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A patient's vital signs: a baseline drawn once per patient plus noise per reading.
+     */
+    private static final class Vitals {
+
+        private final double heartRate;
+        private final double systolic;
+        private final double diastolic;
+        private final double temperature;
+        private final double oxygenSaturation;
+        private final double respiratoryRate;
+        private final double weight;
+
+        Vitals(SplittableRandom random, double age) {
+            boolean child = age < 15;
+            heartRate = (child ? 95 : 74) + 9 * gaussian(random);
+            systolic = (child ? 102 : 112 + 0.35 * age) + 12 * gaussian(random);
+            diastolic = (child ? 62 : 72 + 0.1 * age) + 8 * gaussian(random);
+            temperature = 36.8 + 0.2 * gaussian(random);
+            oxygenSaturation = 97.5 - (age > 70 ? 1.5 : 0) + 0.8 * gaussian(random);
+            respiratoryRate = (child ? 22 : 15) + 1.5 * gaussian(random);
+            weight = child ? 3.5 + age * 3.2 + 2 * gaussian(random) : 70 + 13 * gaussian(random);
+        }
+
+        void record(List<PatientRequest.ObservationRequest> observations, LocalDateTime at, SplittableRandom random, boolean withWeight) {
+            add(observations, "8867-4", whole(clamp(heartRate + 6 * gaussian(random), 35, 200)), "/min", at);
+            add(observations, "8480-6", whole(clamp(systolic + 8 * gaussian(random), 70, 230)), "mm[Hg]", at);
+            add(observations, "8462-4", whole(clamp(diastolic + 6 * gaussian(random), 40, 140)), "mm[Hg]", at);
+            add(observations, "8310-5", tenths(clamp(temperature + 0.3 * gaussian(random), 34.5, 41.5)), "Cel", at);
+            add(observations, "59408-5", whole(clamp(oxygenSaturation + gaussian(random), 80, 100)), "%", at);
+            add(observations, "9279-1", whole(clamp(respiratoryRate + 2 * gaussian(random), 8, 40)), "/min", at);
+            if (withWeight) {
+                add(observations, "29463-7", tenths(clamp(weight + 0.8 * gaussian(random), 2, 250)), "kg", at);
+            }
+        }
+
+        private static void add(List<PatientRequest.ObservationRequest> observations, String code, String value, String unit, LocalDateTime at) {
+            PatientRequest.ObservationRequest observation = new PatientRequest.ObservationRequest();
+            observation.setCode(code);
+            observation.setValue(value);
+            observation.setUnit(unit);
+            observation.setEffectiveDateTime(at);
+            observations.add(observation);
+        }
+
+        private static double clamp(double value, double min, double max) {
+            return Math.max(min, Math.min(max, value));
+        }
+
+        private static String whole(double value) {
+            return Long.toString(Math.round(value));
+        }
+
+        private static String tenths(double value) {
+            // String.format would dominate generation time at this volume
+            long tenths = Math.round(value * 10);
+            return tenths / 10 + "." + tenths % 10;
+        }
+    }
+
+    /**
+     * Draws an index with the given relative weights in O(log n).
+     */
+    private static final class WeightedChoice {
+
+        private final double[] cumulative;
+
+        WeightedChoice(double[] weights) {
+            cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        static WeightedChoice zipf(int size, double exponent) {
+            double[] weights = new double[size];
+            for (int rank = 1; rank <= size; rank++) {
+                weights[rank - 1] = 1 / Math.pow(rank, exponent);
+            }
+            return new WeightedChoice(weights);
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index + 1 : -index - 1);
+        }
+    }
+}
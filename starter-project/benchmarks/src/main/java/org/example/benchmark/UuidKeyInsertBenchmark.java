@@ -0,0 +1,106 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.entity.id.TimeOrderedUuidGenerator;
+import org.example.mapper.PatientGraphMapper;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observation insert throughput with random (v4) against time-ordered (v7) primary keys.
+ * The table keeps growing across iterations, so late iterations show the cost of
+ * inserting into a large primary key index. Row count and primary key index size are
+ * printed at the end of the trial (H2: whole table, PostgreSQL: the pkey index).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidKeyInsertBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"v4", "v7"})
+    public String uuidVersion;
+
+    private ConfigurableApplicationContext context;
+    private ObservationRepository observationRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private Patient patient;
+    private final Random random = new Random(42);
+    private LocalDateTime effective = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // file-backed so H2 can report the space the table takes
+        context = ApplicationFixture.start(
+                "spring.datasource.url=jdbc:h2:file:./target/h2/uuid-" + uuidVersion,
+                "spring.jpa.properties." + TimeOrderedUuidGenerator.UUID_VERSION_SETTING + "=" + uuidVersion);
+        observationRepository = context.getBean(ObservationRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        patient = transactionTemplate.execute(status -> context.getBean(PatientRepository.class).save(
+                context.getBean(PatientGraphMapper.class).toPatientGraph(ApplicationFixture.patientRequest(0, 0, 0, random))));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM observations", Long.class);
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        Long bytes = "PostgreSQL".equals(product)
+                ? jdbcTemplate.queryForObject("SELECT pg_relation_size('observations_pkey')", Long.class)
+                : jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('OBSERVATIONS')", Long.class);
+        System.out.printf("%n  %s ids: %d rows, %s size %.1f MB%n", uuidVersion, rows,
+                "PostgreSQL".equals(product) ? "primary key index" : "table", bytes / 1024.0 / 1024.0);
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertObservations() {
+        List<Observation> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Observation observation = new Observation();
+            observation.setPatient(patient);
+            observation.setCode(i % 2 == 0 ? "8867-4" : "8310-5");
+            observation.setValue(String.valueOf(60 + random.nextInt(40)));
+            observation.setEffectiveDateTime(effective = effective.plusSeconds(30));
+            batch.add(observation);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            observationRepository.saveAll(batch);
+            observationRepository.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the NDJSON bulk patient import.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulk-import")
+public class BulkImportProperties {
+
+    /**
+     * Number of records validated, inserted and committed together.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Failed records listed in the response; the rest are only counted.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,27 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for coalescing concurrent identical patient reads (by id, and searches by query
+ * and page) into one load whose result every waiting caller shares.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Whether concurrent identical reads share one load.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of distinct reads tracked at once per kind of read; further reads run on their own.
+     */
+    private int maxInFlight = 1_000;
+
+    public int effectiveMaxInFlight() {
+        return enabled ? maxInFlight : 0;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.LatestObservationRepository;
+import org.example.repository.ObservationRepository;
+import org.example.service.ObservationService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the latest observation snapshots when the table is empty but observations
+ * exist, as on the first start after the table was introduced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestObservationInitializer implements ApplicationRunner {
+
+    private final LatestObservationRepository latestObservationRepository;
+    private final ObservationRepository observationRepository;
+    private final ObservationService observationService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean observationsExist = observationRepository.findBy(Specification.where(null), FluentQuery.FetchableFluentQuery::exists);
+        if (observationsExist && latestObservationRepository.findFirstBy().isEmpty()) {
+            log.info("Latest observation snapshots are empty, backfilling");
+            observationService.rebuildLatestObservations();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-memory duplicate matching index.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.matching")
+public class MatchingProperties {
+
+    /**
+     * Blocks with more patients than this are skipped by the duplicate scan,
+     * since every pair within a block is compared.
+     */
+    private int maxBlockSize = 1000;
+}
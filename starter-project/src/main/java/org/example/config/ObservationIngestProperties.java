@@ -0,0 +1,35 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the streaming observation ingest and its write-behind queue.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.observation-ingest")
+public class ObservationIngestProperties {
+
+    /**
+     * Observations that may wait for a commit. When the queue is full, ingest requests
+     * are answered with 429 Too Many Requests.
+     */
+    private int queueCapacity = 50_000;
+
+    /**
+     * Maximum number of observations written and committed together.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Longest time a queued observation waits for its batch to fill before it is committed.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Value of the Retry-After header sent with 429 responses.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
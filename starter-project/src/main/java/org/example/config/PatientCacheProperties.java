@@ -0,0 +1,32 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process cache of patient records served by {@code getPatientById}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache.patients")
+public class PatientCacheProperties {
+
+    /**
+     * Whether patient reads go through the cache at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum total weight of the cached records. A record weighs one for the patient plus one
+     * per encounter and observation it holds, so a full record with thousands of observations
+     * takes the room of thousands of demographic ones. Each fetch plan is cached separately.
+     */
+    private long maximumWeight = 250_000;
+
+    /**
+     * How long a record stays cached after it was loaded. Bounds staleness for writes
+     * made outside this instance.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,32 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the full patient record, whose parts are loaded concurrently.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.patient-record")
+public class PatientRecordProperties {
+
+    /**
+     * How long a request waits for its parts. Parts still running are left out of the
+     * response, which is flagged as partial; demographics are required.
+     */
+    private Duration partTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Threads loading parts. Each running part holds a database connection, so keep this
+     * below the connection pool size.
+     */
+    private int threads = 8;
+
+    /**
+     * Parts that may wait for a thread. When the queue is full, further parts are rejected: they are
+     * left out of the response, or it is a 503 if the demographics are rejected.
+     */
+    private int queueCapacity = 256;
+}
@@ -0,0 +1,84 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.util.NameNormalizer;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Prepares the normalized name columns used by patient search.
+ * Rows written before the columns existed are backfilled, and on PostgreSQL the
+ * indexes that JPA cannot declare are created: varchar_pattern_ops for prefix
+ * matches under a non-C collation, and pg_trgm GIN indexes for contains matches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientSearchIndexInitializer implements ApplicationRunner {
+
+    private static final List<String> POSTGRES_INDEXES = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_patient_family_name_norm_pattern ON patients (family_name_norm varchar_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_patient_given_name_norm_pattern ON patients (given_name_norm varchar_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_patient_family_name_norm_trgm ON patients USING gin (family_name_norm gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_patient_given_name_norm_trgm ON patients USING gin (given_name_norm gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfillNormalizedNames();
+        if (properties.isPostgresIndexes() && isPostgres()) {
+            createPostgresIndexes();
+        }
+    }
+
+    private void backfillNormalizedNames() {
+        int batchSize = Math.max(1, properties.getBackfillBatchSize());
+        long updated = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, given_name, family_name FROM patients WHERE given_name_norm IS NULL OR family_name_norm IS NULL",
+                    ps -> ps.setMaxRows(batchSize),
+                    (rs, rowNum) -> new Object[]{
+                            NameNormalizer.normalize(rs.getString("given_name")),
+                            NameNormalizer.normalize(rs.getString("family_name")),
+                            rs.getObject("id", UUID.class)});
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE patients SET given_name_norm = ?, family_name_norm = ? WHERE id = ?", rows);
+            updated += rows.size();
+        }
+        if (updated > 0) {
+            log.info("Backfilled normalized names for {} patients", updated);
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private void createPostgresIndexes() {
+        for (String statement : POSTGRES_INDEXES) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException ex) {
+                // pg_trgm may not be installable by this role; contains-search then falls back to a scan
+                log.warn("Could not create patient search index, skipping: {} ({})", statement, ex.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the patient name search indexes.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /**
+     * Whether to create the pg_trgm and pattern-ops name indexes on PostgreSQL at startup.
+     */
+    private boolean postgresIndexes = true;
+
+    /**
+     * Number of rows updated per statement batch when backfilling the normalized name columns.
+     */
+    private int backfillBatchSize = 500;
+}
@@ -0,0 +1,41 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory store of recent numeric observations.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.timeseries")
+public class TimeSeriesProperties {
+
+    /**
+     * Whether recent numeric observations are kept in memory at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How far back the store holds samples; older windows are read from the database.
+     */
+    private Duration retention = Duration.ofHours(72);
+
+    /**
+     * Width of a compressed block; retention drops whole blocks.
+     */
+    private Duration blockSpan = Duration.ofHours(2);
+
+    /**
+     * Memory budget of the store. Past it the least recently used series are evicted;
+     * their evicted part is served from the database.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+    /**
+     * Out-of-order samples a series may hold uncompressed before it is evicted.
+     */
+    private int maxLateSamples = 1024;
+}
@@ -0,0 +1,30 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.TimeSeriesStoreStats;
+import org.example.service.ObservationService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * {@code /actuator/timeseries}: memory footprint of the observation store and of its
+ * largest series, optionally only those of one patient.
+ */
+@Component
+@Endpoint(id = "timeseries")
+@RequiredArgsConstructor
+public class TimeSeriesStoreEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final ObservationService observationService;
+
+    @ReadOperation
+    public TimeSeriesStoreStats stats(@Nullable UUID patientId, @Nullable Integer limit) {
+        return observationService.getTimeSeriesStoreStats(patientId, limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+}
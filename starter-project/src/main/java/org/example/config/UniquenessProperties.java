@@ -0,0 +1,22 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the Bloom filters that screen patient identifiers, usernames and emails.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.uniqueness")
+public class UniquenessProperties {
+
+    /**
+     * Number of patients the filters are sized for; beyond it the false positive rate climbs.
+     */
+    private long expectedPatients = 1_000_000;
+
+    /**
+     * Target rate of lookups that need a database query although the value is free.
+     */
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,110 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.export.ExportFormat;
+import org.example.service.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "Bulk exports for the reporting warehouse")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final String DEFAULT_FORMAT = "ndjson";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    @Operation(summary = "Export patients", description = "Streams every patient updated at or after 'since' (all if omitted), ordered by id, as NDJSON or CSV. "
+            + "The body is gzip-compressed when the client sends Accept-Encoding: gzip.")
+    @GetMapping("/patients")
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = DEFAULT_FORMAT) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("patients", ExportFormat.from(format), acceptEncoding,
+                (exportFormat, out) -> exportService.exportPatients(since, exportFormat, out));
+    }
+
+    @Operation(summary = "Export encounters", description = "Streams every encounter updated at or after 'since' (all if omitted), ordered by id, as NDJSON or CSV. "
+            + "The body is gzip-compressed when the client sends Accept-Encoding: gzip.")
+    @GetMapping("/encounters")
+    public ResponseEntity<StreamingResponseBody> exportEncounters(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = DEFAULT_FORMAT) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("encounters", ExportFormat.from(format), acceptEncoding,
+                (exportFormat, out) -> exportService.exportEncounters(since, exportFormat, out));
+    }
+
+    @Operation(summary = "Export observations", description = "Streams every observation updated at or after 'since' (all if omitted), ordered by id, as NDJSON or CSV. "
+            + "The body is gzip-compressed when the client sends Accept-Encoding: gzip.")
+    @GetMapping("/observations")
+    public ResponseEntity<StreamingResponseBody> exportObservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = DEFAULT_FORMAT) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("observations", ExportFormat.from(format), acceptEncoding,
+                (exportFormat, out) -> exportService.exportObservations(since, exportFormat, out));
+    }
+
+    /**
+     * The body is written on an async request thread after the headers are sent, so a
+     * failure midway can only cut the response short; it is logged here.
+     */
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, String acceptEncoding, Export export) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody body = out -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    export.write(format, compressed);
+                    compressed.finish();
+                } else {
+                    export.write(format, out);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Export of {} aborted: {}", name, ex.getMessage());
+                throw ex;
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        long write(ExportFormat format, OutputStream out) throws IOException;
+    }
+}
@@ -1,30 +1,58 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.config.ObservationIngestProperties;
 import org.example.dto.*;
 import org.example.entity.Encounter;
+import org.example.service.EncounterScheduleService;
+import org.example.service.ObservationIngestService;
 import org.example.service.ObservationService;
+import org.example.service.PatientImportService;
+import org.example.service.PatientMatchService;
+import org.example.service.PatientRecordService;
 import org.example.service.PatientService;
+import org.example.service.TimelineService;
+import org.example.specification.NameMatchMode;
+import org.example.timeseries.BucketAggregator;
+import org.example.util.ItemSink;
+import org.example.util.PatientETag;
+import org.example.util.StreamingCursorPageWriter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Slf4j
 @Validated
@@ -37,11 +65,32 @@ public class PatientController {
     private static final String DEFAULT_PAGE = "0";
     private static final String DEFAULT_PAGE_SIZE = "10";
     private static final String DEFAULT_SORT_BY = "familyName,asc";
+    private static final String DEFAULT_MATCH = "prefix";
+    private static final String DEFAULT_OBSERVATION_LIMIT = "100";
+    private static final String DEFAULT_BUCKET = "1h";
+    private static final String DEFAULT_TIMELINE_LIMIT = "50";
+    private static final String DEFAULT_RECORD_ENCOUNTERS = "20";
 
     private final PatientService patientService;
 
     private final ObservationService observationService;
 
+    private final PatientImportService patientImportService;
+
+    private final PatientMatchService patientMatchService;
+
+    private final ObservationIngestService observationIngestService;
+
+    private final EncounterScheduleService encounterScheduleService;
+
+    private final TimelineService timelineService;
+
+    private final PatientRecordService patientRecordService;
+
+    private final ObservationIngestProperties observationIngestProperties;
+
+    private final ObjectMapper objectMapper;
+
     @Operation(summary = "Create a new patient", description = "Registers a new patient along with optional encounters and observations.")
     @PostMapping
     public ResponseEntity<ApiResponse<PatientResponse>> createPatient(@Valid @RequestBody PatientRequest request) {
@@ -50,20 +99,74 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Patient created successfully", patient));
     }
 
-    @Operation(summary = "Fetch patient by ID", description = "Retrieves patient details along with associated information.")
+    @Operation(summary = "Bulk import patients", description = "Imports newline-delimited JSON patient graphs in committed chunks and reports the outcome counts and the failed records.")
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<BulkImportResponse>> bulkImportPatients(InputStream ndjson) throws IOException {
+        log.info("Starting bulk patient import");
+        BulkImportResponse report = patientImportService.importPatients(ndjson);
+        return ResponseEntity.ok(ApiResponse.success("Bulk import completed", report));
+    }
+
+    @Operation(summary = "Stream observations", description = "Queues newline-delimited JSON observations, each tagged with patientId and optional encounterId, for group commit. "
+            + "Answers 202 once every record is queued, or 429 with Retry-After and the line to resend from when the queue is full. "
+            + "Duplicates of (patient, code, effectiveDateTime) and records of unknown patients or encounters are dropped at commit.")
+    @PostMapping(value = "/observations/ingest", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<ObservationIngestResponse>> ingestObservations(InputStream ndjson) throws IOException {
+        ObservationIngestResponse report = observationIngestService.ingest(ndjson);
+        if (report.isThrottled()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, observationIngestProperties.getRetryAfter().toSeconds())))
+                    .body(ApiResponse.<ObservationIngestResponse>error("Ingest queue is full; resend from line " + report.getResumeFromLine())
+                            .withData(report));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Observations queued", report));
+    }
+
+    @Operation(summary = "Fetch patient by ID", description = "Retrieves patient details along with associated information. Use include=encounters,observations or depth=0|1|2 to limit the child records loaded. "
+            + "Responses carry a strong ETag; send it back in If-None-Match to get 304 Not Modified while the patient is unchanged.")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<PatientResponse>> getPatientById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<PatientResponse>> getPatientById(@PathVariable UUID id, @RequestParam(required = false) List<String> include,
+                                                                       @RequestParam(required = false) @Min(0) Integer depth,
+                                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching patient with ID: {}", id);
-        PatientResponse patient = patientService.getPatientById(id);
-        return ResponseEntity.ok(ApiResponse.success("Patient retrieved successfully", patient));
+        PatientFetchPlan plan = PatientFetchPlan.from(include, depth);
+        if (ifNoneMatch != null) {
+            // version-only query; the graph is neither loaded nor serialized when unchanged
+            String etag = PatientETag.of(id, patientService.getPatientVersion(id), plan);
+            if (PatientETag.matchesAny(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        PatientResponse patient = patientService.getPatientById(id, plan);
+        return ResponseEntity.ok()
+                .eTag(PatientETag.of(patient, plan))
+                .body(ApiResponse.success("Patient retrieved successfully", patient));
+    }
+
+    @Operation(summary = "Fetch many patients by ID", description = "Resolves up to 500 patient IDs in one round trip and returns them keyed by ID in request order; IDs with no patient are marked found=false. "
+            + "Takes the same include/depth parameters as the single fetch; each requested child collection is loaded with one query for all patients.")
+    @PostMapping("/batch-get")
+    public ResponseEntity<ApiResponse<Map<UUID, PatientBatchEntry>>> getPatientsByIds(@RequestBody @NotEmpty @Size(max = 500) List<@NotNull UUID> ids,
+                                                                                      @RequestParam(required = false) List<String> include,
+                                                                                      @RequestParam(required = false) @Min(0) Integer depth) {
+        log.info("Fetching {} patients by ID", ids.size());
+        Map<UUID, PatientBatchEntry> patients = patientService.getPatientsByIds(ids, PatientFetchPlan.from(include, depth));
+
+        return ResponseEntity.ok(ApiResponse.success("Patients retrieved successfully", patients));
     }
 
-    @Operation(summary = "Update patient information", description = "Updates an existing patient's demographic and clinical information.")
+    @Operation(summary = "Update patient information", description = "Updates an existing patient's demographic and clinical information. "
+            + "With If-Match, the update only applies if the patient's demographics are still at the version of the given ETag; otherwise 412 Precondition Failed. "
+            + "A conflicting concurrent update without If-Match answers 409 Conflict.")
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<PatientResponse>> updatePatient(@PathVariable UUID id, @Valid @RequestBody PatientRequest request) {
+    public ResponseEntity<ApiResponse<PatientResponse>> updatePatient(@PathVariable UUID id, @Valid @RequestBody PatientRequest request,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating patient with ID: {}", id);
-        PatientResponse updatedPatient = patientService.updatePatient(id, request);
-        return ResponseEntity.ok(ApiResponse.success("Patient updated successfully", updatedPatient));
+        PatientResponse updatedPatient = patientService.updatePatient(id, request,
+                ifMatch != null ? PatientETag.acceptedVersions(ifMatch, id) : null);
+        return ResponseEntity.ok()
+                .eTag(PatientETag.of(updatedPatient, PatientFetchPlan.FULL))
+                .body(ApiResponse.success("Patient updated successfully", updatedPatient));
     }
 
     @Operation(summary = "Delete a patient", description = "Deletes a patient record and all associated encounters and observations.")
@@ -74,20 +177,79 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("Patient deleted successfully", null));
     }
 
-    @Operation(summary = "Search patients", description = "Search patients using filters such as name, identifier, or date of birth.")
+    @Operation(summary = "Search patients", description = "Search patients using filters such as name, identifier, or date of birth. Names are matched case- and accent-insensitively using match=prefix (default), contains or exact.")
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<PatientResponse>>> searchPatients(@RequestParam(required = false) String family, @RequestParam(required = false) String given,
+    public ResponseEntity<ApiResponse<Page<PatientSummaryResponse>>> searchPatients(@RequestParam(required = false) String family, @RequestParam(required = false) String given,
+            @RequestParam(defaultValue = DEFAULT_MATCH) String match,
             @RequestParam(required = false) String identifier, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = DEFAULT_PAGE) int page, @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size, @RequestParam(defaultValue = DEFAULT_SORT_BY) String[] sort) {
 
-        log.info("Searching patients with filters - family: {}, given: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}, page: {}, size: {}", family, given, identifier, birthDate, startDate, endDate, page, size);
+        log.info("Searching patients with filters - family: {}, given: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}, page: {}, size: {}", family, given, match, identifier, birthDate, startDate, endDate, page, size);
         Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-        Page<PatientResponse> patients = patientService.searchPatients(family, given, identifier, birthDate, startDate, endDate, pageable);
+        Page<PatientSummaryResponse> patients = patientService.searchPatients(family, given, NameMatchMode.from(match), identifier, birthDate, startDate, endDate, pageable);
+
+        return ResponseEntity.ok(ApiResponse.success("Patient search successful", patients));
+    }
+
+    @Operation(summary = "Search patients by cursor", description = "Keyset-paginated search ordered by family name. Pass an empty 'after' for the first page, then the returned nextCursor.")
+    @GetMapping(params = {"after", "stream!=true"})
+    public ResponseEntity<ApiResponse<CursorPage<PatientSummaryResponse>>> searchPatientsByCursor(@RequestParam(required = false) String family, @RequestParam(required = false) String given,
+            @RequestParam(defaultValue = DEFAULT_MATCH) String match,
+            @RequestParam(required = false) String identifier, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(1000) int size,
+            @RequestParam(defaultValue = DEFAULT_SORT_BY) String[] sort, @RequestParam(defaultValue = "false") boolean approximateTotal) {
+
+        log.info("Searching patients by cursor - family: {}, given: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}, size: {}", family, given, match, identifier, birthDate, startDate, endDate, size);
+        if (!parseSort(sort).equals(Sort.by("familyName").ascending())) {
+            throw new IllegalArgumentException("Cursor pagination only supports sort=" + DEFAULT_SORT_BY);
+        }
+        CursorPage<PatientSummaryResponse> patients = patientService.searchPatientsAfter(family, given, NameMatchMode.from(match), identifier, birthDate, startDate, endDate, after, size, approximateTotal);
 
         return ResponseEntity.ok(ApiResponse.success("Patient search successful", patients));
     }
 
+    @Operation(summary = "Stream patients by cursor", description = "Same as the cursor search, but each patient is serialized as it is read from the database, "
+            + "so pages of up to 100000 patients take constant memory. No total is returned.")
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamPatientsByCursor(@RequestParam(required = false) String family, @RequestParam(required = false) String given,
+            @RequestParam(defaultValue = DEFAULT_MATCH) String match,
+            @RequestParam(required = false) String identifier, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(100_000) int size,
+            @RequestParam(defaultValue = DEFAULT_SORT_BY) String[] sort) {
+
+        log.info("Streaming patients by cursor - family: {}, given: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}, size: {}", family, given, match, identifier, birthDate, startDate, endDate, size);
+        if (!parseSort(sort).equals(Sort.by("familyName").ascending())) {
+            throw new IllegalArgumentException("Cursor pagination only supports sort=" + DEFAULT_SORT_BY);
+        }
+        NameMatchMode matchMode = NameMatchMode.from(match);
+        return this.<PatientSummaryResponse>streamCursorPage(sink -> patientService.streamPatientsAfter(family, given, matchMode, identifier, birthDate, startDate, endDate, after, size, sink),
+                page -> "Patient search successful");
+    }
+
+    @Operation(summary = "Find probable duplicates", description = "Ranks patients that sound like the given name and/or share the birth date, using the in-memory matching index.")
+    @GetMapping("/match")
+    public ResponseEntity<ApiResponse<List<PatientMatchCandidate>>> matchPatients(@RequestParam(required = false) String family, @RequestParam(required = false) String given,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDate,
+            @RequestParam(defaultValue = "0.8") @DecimalMin("0") @DecimalMax("1") double minScore, @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(500) int limit) {
+
+        log.info("Matching patients - family: {}, given: {}, birthDate: {}, minScore: {}, limit: {}", family, given, birthDate, minScore, limit);
+        List<PatientMatchCandidate> candidates = patientMatchService.findMatches(family, given, birthDate, minScore, limit);
+        return ResponseEntity.ok(ApiResponse.success("Patient match successful", candidates));
+    }
+
+    @Operation(summary = "Scan for duplicate pairs", description = "Scores the whole registry for probable duplicate pairs in parallel and returns the highest scoring ones.")
+    @GetMapping("/match/duplicates")
+    public ResponseEntity<ApiResponse<DuplicateReport>> findDuplicatePatients(@RequestParam(defaultValue = "0.9") @DecimalMin("0") @DecimalMax("1") double minScore,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(10000) int limit) {
+
+        log.info("Scanning for duplicate patients - minScore: {}, limit: {}", minScore, limit);
+        DuplicateReport report = patientMatchService.findDuplicates(minScore, limit);
+        return ResponseEntity.ok(ApiResponse.success("Duplicate scan completed", report));
+    }
+
     @Operation(summary = "Get encounters for a patient", description = "Retrieves all encounters for the given patient ID with pagination.")
     @GetMapping("/{id}/encounters")
     public ResponseEntity<ApiResponse<Page<EncounterResponse>>> getPatientEncounters(@PathVariable UUID id, @RequestParam(defaultValue = DEFAULT_PAGE) int page,
@@ -99,12 +261,64 @@ public class PatientController {
         return ResponseEntity.ok(ApiResponse.success("Encounters retrieved successfully", encounters));
     }
 
+    @Operation(summary = "Get encounters for a patient in a time window", description = "Encounters overlapping [from, to], newest first, including those spanning the whole window. "
+            + "An encounter without an end is treated as still open.")
+    @GetMapping(value = "/{id}/encounters", params = {"from", "to"})
+    public ResponseEntity<ApiResponse<List<EncounterResponse>>> getPatientEncountersInRange(@PathVariable UUID id,
+                                                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Fetching encounters for patient ID: {} between {} and {}", id, from, to);
+        List<EncounterResponse> encounters = patientService.getPatientEncounters(id, from, to);
+
+        return ResponseEntity.ok(ApiResponse.success("Encounters retrieved successfully", encounters));
+    }
+
+    @Operation(summary = "Check proposed encounter slots", description = "For each proposed [start, end] slot, reports whether it is free and which booked encounters of the patient it overlaps. "
+            + "Up to 1000 slots per request; encounters without an end are treated as still open.")
+    @PostMapping("/encounters/overlaps")
+    public ResponseEntity<ApiResponse<List<EncounterOverlapResult>>> checkEncounterOverlaps(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid EncounterSlot> slots) {
+        log.info("Checking {} proposed encounter slots", slots.size());
+        List<EncounterOverlapResult> results = encounterScheduleService.findOverlaps(slots);
+
+        return ResponseEntity.ok(ApiResponse.success("Encounter overlap check completed", results));
+    }
+
+    @Operation(summary = "Get encounters for a patient by cursor", description = "Keyset-paginated encounters, newest first. Pass an empty 'after' for the first page, then the returned nextCursor.")
+    @GetMapping(value = "/{id}/encounters", params = "after")
+    public ResponseEntity<ApiResponse<CursorPage<EncounterResponse>>> getPatientEncountersByCursor(@PathVariable UUID id, @RequestParam(required = false) String after,
+                                                                                                 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(1000) int size,
+                                                                                                 @RequestParam(defaultValue = "false") boolean approximateTotal) {
+        log.info("Fetching encounters by cursor for patient ID: {}", id);
+        CursorPage<EncounterResponse> encounters = patientService.getPatientEncountersAfter(id, after, size, approximateTotal);
+
+        return ResponseEntity.ok(ApiResponse.success("Encounters retrieved successfully", encounters));
+    }
+
+    /**
+     * The page is read and serialized on an async request thread; see {@link StreamingCursorPageWriter}
+     * for what happens when it fails.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> streamCursorPage(CursorPageStream<T> stream, Function<CursorPage<T>, String> message) {
+        StreamingResponseBody body = out -> {
+            StreamingCursorPageWriter<T> writer = new StreamingCursorPageWriter<>(objectMapper, out);
+            CursorPage<T> page = stream.writeTo(writer);
+            writer.finish(page, message.apply(page));
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @FunctionalInterface
+    private interface CursorPageStream<T> {
+        CursorPage<T> writeTo(ItemSink<T> sink) throws IOException;
+    }
+
     private Sort parseSort(String[] sort) {
         if (sort == null || sort.length == 0) {
             return Sort.by("familyName").ascending();
         }
 
-        String[] sortParams = sort[0].split(",");
+        // a single "property,direction" value arrives already split into two elements
+        String[] sortParams = sort.length == 2 && !sort[0].contains(",") ? sort : sort[0].split(",");
         if (sortParams.length == 2) {
             String property = sortParams[0];
             String direction = sortParams[1];
@@ -114,25 +328,90 @@ public class PatientController {
         return Sort.by("familyName").ascending();
     }
 
-    @Operation(summary = "Get observations for a patient", description = "Fetches all observations recorded for a specific patient.")
+    @Operation(summary = "Get observations for a patient", description = "Keyset-paginated observations, newest first. Optionally filter by code and by an effective time window [from, to). "
+            + "Pass the returned nextCursor as 'after' to read the next slice.")
     @GetMapping("/{id}/observations")
-    public ResponseEntity<ApiResponse<List<ObservationResponse>>> getPatientObservations(@PathVariable("id") UUID patientId) {
+    public ResponseEntity<ApiResponse<CursorPage<ObservationResponse>>> getPatientObservations(@PathVariable("id") UUID patientId,
+                                                                                             @RequestParam(required = false) String code,
+                                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                                             @RequestParam(required = false) String after,
+                                                                                             @RequestParam(defaultValue = DEFAULT_OBSERVATION_LIMIT) @Min(1) @Max(1000) int limit) {
         log.info("GET /api/patients/{}/observations called", patientId);
+        CursorPage<ObservationResponse> observations = observationService.getObservations(patientId, code, from, to, after, limit);
 
-        try {
-            List<ObservationResponse> observations = observationService.getObservationsByPatientId(patientId);
+        if (observations.getContent().isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success("No observations found for this patient", observations));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Observations retrieved successfully", observations));
+    }
 
-            if (observations.isEmpty()) {
-                return ResponseEntity.ok(ApiResponse.success("No observations found for this patient", observations));
-            }
+    @Operation(summary = "Stream observations for a patient", description = "Same as getting observations, but each observation is serialized as it is read from the database, "
+            + "so slices of up to 100000 observations take constant memory.")
+    @GetMapping(value = "/{id}/observations", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamPatientObservations(@PathVariable("id") UUID patientId,
+                                                                           @RequestParam(required = false) String code,
+                                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                           @RequestParam(required = false) String after,
+                                                                           @RequestParam(defaultValue = DEFAULT_OBSERVATION_LIMIT) @Min(1) @Max(100_000) int limit) {
+        log.info("GET /api/patients/{}/observations?stream=true called", patientId);
+        return this.<ObservationResponse>streamCursorPage(sink -> observationService.streamObservations(patientId, code, from, to, after, limit, sink),
+                page -> page.getSize() == 0 ? "No observations found for this patient" : "Observations retrieved successfully");
+    }
 
-            return ResponseEntity.ok(ApiResponse.success("Observations retrieved successfully", observations));
+    @Operation(summary = "Get a patient's timeline", description = "Encounters (at their start) and observations (at their effective time) merged newest first. "
+            + "Optionally start before a given time; pass the returned nextCursor as 'after' to read further back.")
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<ApiResponse<CursorPage<TimelineEntry>>> getPatientTimeline(@PathVariable("id") UUID patientId,
+                                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                                                                   @RequestParam(required = false) String after,
+                                                                                   @RequestParam(defaultValue = DEFAULT_TIMELINE_LIMIT) @Min(1) @Max(1000) int limit) {
+        log.info("Fetching timeline for patient ID: {} before {}", patientId, before);
+        CursorPage<TimelineEntry> timeline = timelineService.getTimeline(patientId, before, after, limit);
 
-        } catch (Exception ex) {
-            log.error("Error retrieving observations for patient ID: {}", patientId, ex);
-            return ResponseEntity
-                    .internalServerError()
-                    .body(ApiResponse.error("An unexpected error occurred while retrieving observations"));
-        }
+        return ResponseEntity.ok(ApiResponse.success("Timeline retrieved successfully", timeline));
+    }
+
+    @Operation(summary = "Get a patient's full record", description = "Demographics, the latest encounters, the vitals snapshot and recent observations, loaded in parallel. "
+            + "Parts not loaded within the part timeout are omitted and listed in missingParts, with partial=true; the demographics are always required.")
+    @GetMapping("/{id}/record")
+    public ResponseEntity<ApiResponse<PatientResponse>> getPatientRecord(@PathVariable UUID id,
+                                                                         @RequestParam(defaultValue = DEFAULT_RECORD_ENCOUNTERS) @Min(1) @Max(1000) int encounters,
+                                                                         @RequestParam(defaultValue = DEFAULT_OBSERVATION_LIMIT) @Min(1) @Max(1000) int observations) {
+        log.info("Fetching full record of patient with ID: {}", id);
+        PatientResponse record = patientRecordService.getPatientRecord(id, encounters, observations);
+
+        return ResponseEntity.ok(ApiResponse.success(Boolean.TRUE.equals(record.getPartial())
+                ? "Patient record partially retrieved" : "Patient record retrieved successfully", record));
+    }
+
+    @Operation(summary = "Get a downsampled observation series", description = "Min/max/avg/count of the numeric values of one observation code per time bucket (e.g. 5m, 1h, 1d), oldest first. "
+            + "The window [from, to) defaults to the 30 days before now; empty buckets are omitted.")
+    @GetMapping("/{id}/observations/series")
+    public ResponseEntity<ApiResponse<ObservationSeriesResponse>> getPatientObservationSeries(@PathVariable("id") UUID patientId, @RequestParam String code,
+                                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                                             @RequestParam(defaultValue = DEFAULT_BUCKET) String bucket) {
+        log.info("GET /api/patients/{}/observations/series called for code {}", patientId, code);
+        ObservationSeriesResponse series = observationService.getObservationSeries(patientId, code, from, to, BucketAggregator.parseBucket(bucket));
+        return ResponseEntity.ok(ApiResponse.success("Observation series retrieved successfully", series));
+    }
+
+    @Operation(summary = "Get the latest observation per code", description = "Vitals snapshot: the newest observation of every code recorded for the patient, ordered by code.")
+    @GetMapping("/{id}/observations/latest")
+    public ResponseEntity<ApiResponse<List<ObservationResponse>>> getLatestPatientObservations(@PathVariable("id") UUID patientId) {
+        log.info("GET /api/patients/{}/observations/latest called", patientId);
+        List<ObservationResponse> latest = observationService.getLatestObservations(patientId);
+        return ResponseEntity.ok(ApiResponse.success("Latest observations retrieved successfully", latest));
+    }
+
+    @Operation(summary = "Rebuild the latest observation snapshots", description = "Recomputes the newest observation per patient and code from all observations, "
+            + "for backfilling or after writes that bypassed the API. Returns the number of rows written.")
+    @PostMapping("/observations/latest/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildLatestObservations() {
+        log.info("Rebuilding latest observation snapshots");
+        int rows = observationService.rebuildLatestObservations();
+        return ResponseEntity.ok(ApiResponse.success("Latest observations rebuilt", rows));
     }
 }
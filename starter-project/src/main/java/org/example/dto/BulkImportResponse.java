@@ -0,0 +1,28 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk patient import: counts of all records and the failed records, up to
+ * {@code app.bulk-import.max-reported-errors} of them in line order, so the report does
+ * not grow with the input.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long durationMillis;
+    private double recordsPerSecond;
+    private List<BulkImportResult> errors;
+    /** Whether more records failed than are listed in {@code errors}. */
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportResult {
+    private long line;
+    private String identifier;
+    private boolean success;
+    private UUID patientId;
+    private String error;
+
+    public static BulkImportResult success(long line, String identifier, UUID patientId) {
+        return new BulkImportResult(line, identifier, true, patientId, null);
+    }
+
+    public static BulkImportResult failure(long line, String identifier, String error) {
+        return new BulkImportResult(line, identifier, false, null, error);
+    }
+}
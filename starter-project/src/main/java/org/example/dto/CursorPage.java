@@ -0,0 +1,83 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.util.ItemSink;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A slice of results fetched by keyset pagination.
+ * Pass {@code nextCursor} back as {@code after} to fetch the following slice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long approximateTotal;
+
+    /**
+     * Build a page from a query that fetched one row more than {@code size};
+     * the extra row only signals that another page exists.
+     * @param rows Up to {@code size + 1} rows in keyset order
+     * @param size Requested page size
+     * @param cursorOf Encodes the keyset cursor of a row
+     * @return The page, with a cursor for the last row if there are more rows
+     */
+    public static <T> CursorPage<T> fromRows(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor, null);
+    }
+
+    /**
+     * Hand up to {@code size} rows to {@code sink} as they are read, instead of collecting them.
+     * One row more than {@code size} is read to find out whether another page exists.
+     * @param rows Up to {@code size + 1} rows in keyset order
+     * @param size Requested page size
+     * @param cursorOf Encodes the keyset cursor of a row
+     * @param sink Receives the rows of the page
+     * @return The page without content, with a cursor for the last row if there are more rows
+     */
+    public static <T> CursorPage<T> streamRows(Stream<T> rows, int size, Function<T, String> cursorOf, ItemSink<T> sink) throws IOException {
+        int count = 0;
+        T last = null;
+        boolean hasNext = false;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (count == size) {
+                hasNext = true;
+                break;
+            }
+            sink.accept(row);
+            last = row;
+            count++;
+        }
+        return new CursorPage<>(null, count, hasNext, hasNext ? cursorOf.apply(last) : null, null);
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, size, hasNext, nextCursor, approximateTotal);
+    }
+
+    public CursorPage<T> withApproximateTotal(Long approximateTotal) {
+        this.approximateTotal = approximateTotal;
+        return this;
+    }
+}
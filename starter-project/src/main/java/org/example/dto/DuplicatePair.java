@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two registry entries that probably describe the same person.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicatePair {
+
+    private PatientMatchCandidate first;
+    private PatientMatchCandidate second;
+    private double score;
+}
@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of scoring the whole registry for duplicate pairs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateReport {
+
+    private int patientsScanned;
+    private long comparisons;
+    private int skippedBlocks;
+    private long durationMillis;
+    private List<DuplicatePair> pairs;
+}
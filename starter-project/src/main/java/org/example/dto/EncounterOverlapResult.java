@@ -0,0 +1,29 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of checking one proposed slot: whether it is free and, if not, the encounters it clashes with.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EncounterOverlapResult {
+    private int index;
+    private UUID patientId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean available;
+    private List<EncounterResponse> conflicts;
+    private String error;
+}
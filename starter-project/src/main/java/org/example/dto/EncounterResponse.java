@@ -3,13 +3,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.entity.Encounter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EncounterResponse {
@@ -21,4 +22,19 @@ public class EncounterResponse {
     private LocalDateTime updatedAt;
     private UUID patientId;
     private List<ObservationResponse> observations;
+
+    /**
+     * The encounter without its observations, for lists where they are not wanted.
+     */
+    public static EncounterResponse of(Encounter encounter) {
+        return EncounterResponse.builder()
+                .id(encounter.getId())
+                .start(encounter.getStart())
+                .endTime(encounter.getEndTime())
+                .encounterClass(String.valueOf(encounter.getEncounterClass()))
+                .createdAt(encounter.getCreatedAt())
+                .updatedAt(encounter.getUpdatedAt())
+                .patientId(encounter.getPatient().getId())
+                .build();
+    }
 }
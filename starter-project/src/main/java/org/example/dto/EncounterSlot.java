@@ -0,0 +1,28 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A proposed encounter time [start, end] for a patient, checked for clashes with booked encounters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EncounterSlot {
+    @NotNull(message = "Patient id is required")
+    private UUID patientId;
+
+    @NotNull(message = "Start date/time is required")
+    private LocalDateTime start;
+
+    @NotNull(message = "End date/time is required")
+    private LocalDateTime end;
+}
@@ -0,0 +1,31 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a streaming observation ingest request. Accepted records are queued and
+ * committed shortly after the response; duplicates and records of unknown patients or
+ * encounters are dropped at commit and only counted in the ingest metrics.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ObservationIngestResponse {
+    private int accepted;
+    private int rejected;
+    /** Whether reading stopped because the queue was full. */
+    private boolean throttled;
+    /** The first line that was not read, to resend after a throttled request. */
+    private Long resumeFromLine;
+    private long durationMillis;
+    /** Records that failed to parse or validate. */
+    private List<BulkImportResult> errors;
+}
@@ -2,12 +2,22 @@ package org.example.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
+/**
+ * A standalone observation, as sent to the streaming ingest endpoint.
+ */
 @Data
 public class ObservationRequest {
+    @NotNull(message = "Patient id is required")
+    private UUID patientId;
+
+    private UUID encounterId;
+
     @NotBlank(message = "Code is required")
     private String code;
 
@@ -16,4 +26,8 @@ public class ObservationRequest {
 
     @NotNull(message = "Effective date/time is required")
     private LocalDateTime effectiveDateTime;
+
+    /** Overrides the unit parsed from the value, if any. */
+    @Size(max = 32, message = "Unit must not exceed 32 characters")
+    private String unit;
 }
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ObservationResponse {
@@ -18,5 +18,7 @@ public class ObservationResponse {
     private UUID encounterId;
     private String code;
     private String value;
+    private Double valueNumeric;
+    private String unit;
     private LocalDateTime effectiveDateTime;
 }
@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the samples falling in one time bucket.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObservationSeriesPoint {
+    private LocalDateTime start;
+    private long count;
+    private double min;
+    private double max;
+    private double avg;
+}
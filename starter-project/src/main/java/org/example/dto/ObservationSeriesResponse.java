@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A numeric observation series downsampled into fixed time buckets.
+ * Buckets without samples are omitted.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ObservationSeriesResponse {
+    private UUID patientId;
+    private String code;
+    /** The unit shared by all samples; absent if none was recorded or the samples disagree. */
+    private String unit;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String bucket;
+    private long samples;
+    private List<ObservationSeriesPoint> points;
+}
@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One id of a multi-get: the patient record, or {@code found=false} when no patient has that id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientBatchEntry {
+    private boolean found;
+    private PatientResponse patient;
+
+    public static PatientBatchEntry of(PatientResponse patient) {
+        return patient != null ? new PatientBatchEntry(true, patient) : new PatientBatchEntry(false, null);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Which child collections of a patient to load and return.
+ * Demographics are always included; encounters and observations are only read
+ * from their tables when requested.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PatientFetchPlan {
+
+    public static final PatientFetchPlan DEMOGRAPHICS = new PatientFetchPlan(false, false);
+    public static final PatientFetchPlan ENCOUNTERS = new PatientFetchPlan(true, false);
+    public static final PatientFetchPlan OBSERVATIONS = new PatientFetchPlan(false, true);
+    public static final PatientFetchPlan FULL = new PatientFetchPlan(true, true);
+
+    boolean encounters;
+    boolean observations;
+
+    public static PatientFetchPlan of(boolean encounters, boolean observations) {
+        if (encounters) {
+            return observations ? FULL : ENCOUNTERS;
+        }
+        return observations ? OBSERVATIONS : DEMOGRAPHICS;
+    }
+
+    /**
+     * Short name of the plan, used to tell representations apart in ETags.
+     */
+    public String code() {
+        if (encounters) {
+            return observations ? "full" : "encounters";
+        }
+        return observations ? "observations" : "demographics";
+    }
+
+    /**
+     * Resolve a plan from the {@code include} and {@code depth} request parameters.
+     * {@code include} takes precedence; depth 0 is demographics only, 1 adds encounters
+     * and 2 or more adds observations. Without either parameter the full record is returned.
+     * @param include Child collections to include (encounters, observations)
+     * @param depth Depth of the patient graph to return
+     * @return The resolved plan
+     * @throws IllegalArgumentException if an include value or the depth is not supported
+     */
+    public static PatientFetchPlan from(List<String> include, Integer depth) {
+        if (include != null && !include.isEmpty()) {
+            boolean encounters = false;
+            boolean observations = false;
+            for (String value : include) {
+                switch (value.trim().toLowerCase()) {
+                    case "encounters" -> encounters = true;
+                    case "observations" -> observations = true;
+                    case "" -> { }
+                    default -> throw new IllegalArgumentException(
+                            "Unsupported include value '" + value + "'; expected encounters or observations");
+                }
+            }
+            return of(encounters, observations);
+        }
+        if (depth != null) {
+            if (depth < 0) {
+                throw new IllegalArgumentException("Depth must not be negative");
+            }
+            return depth == 0 ? DEMOGRAPHICS : of(true, depth >= 2);
+        }
+        return FULL;
+    }
+}
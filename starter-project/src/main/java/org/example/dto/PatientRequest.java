@@ -1,6 +1,7 @@
 package org.example.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import org.example.entity.Patient;
@@ -43,8 +44,10 @@ public class PatientRequest {
 
     private Patient.Gender gender;
 
+    @Valid
     private List<EncounterRequest> encounters;
 
+    @Valid
     private List<ObservationRequest> observations;
 
     @Data
@@ -57,6 +60,7 @@ public class PatientRequest {
         @NotBlank(message = "Encounter class is required")
         private String encounterClass;
 
+        @Valid
         private List<ObservationRequest> observations;
     }
 
@@ -70,5 +74,9 @@ public class PatientRequest {
 
         @NotNull(message = "Effective date/time is required")
         private LocalDateTime effectiveDateTime;
+
+        /** Overrides the unit parsed from the value, if any. */
+        @Size(max = 32, message = "Unit must not exceed 32 characters")
+        private String unit;
     }
 }
@@ -1,6 +1,7 @@
 package org.example.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -40,9 +41,28 @@ public class PatientResponse {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
 
+    private Long version;
+
+    /**
+     * Version of the encounters and observations, for the ETag only.
+     */
+    @JsonIgnore
+    private Long childrenVersion;
+
     private List<EncounterResponse> encounters;
     private List<ObservationResponse> observations;
 
+    /**
+     * Newest observation of each code; only set on the full record.
+     */
+    private List<ObservationResponse> latestObservations;
+
+    /**
+     * Set on the full record when some parts could not be loaded in time; those parts are listed in {@code missingParts}.
+     */
+    private Boolean partial;
+    private List<String> missingParts;
+
 //    public static PatientResponse fromEntity(Patient patient, boolean includeRelations) {
 //        if (patient == null) return null;
 //
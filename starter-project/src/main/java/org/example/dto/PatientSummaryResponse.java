@@ -0,0 +1,48 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.entity.Patient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Demographic view of a patient returned by search.
+ * Selected straight from the patients table with a constructor expression, so the
+ * field order must match the select list in {@code PatientSearchRepositoryImpl}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryResponse {
+
+    private UUID id;
+    private String identifier;
+    private String givenName;
+    private String familyName;
+    private String username;
+    private String email;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate birthDate;
+
+    private Patient.Gender gender;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    public static PatientSummaryResponse of(Patient patient) {
+        return new PatientSummaryResponse(patient.getId(), patient.getIdentifier(), patient.getGivenName(),
+                patient.getFamilyName(), patient.getUsername(), patient.getEmail(), patient.getBirthDate(),
+                patient.getGender(), patient.getCreatedAt(), patient.getUpdatedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The two counters a patient's ETag is built from: the optimistic-locking version of its
+ * demographics and the version of its child records.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientVersion {
+    private Long version;
+    private Long childrenVersion;
+}
@@ -0,0 +1,33 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.timeseries.TimeSeriesStore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Memory footprint of the in-memory observation series, with the largest series.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeSeriesStoreStats {
+    private boolean enabled;
+    /** Start of the time served from memory, null until the store is warmed up. */
+    private LocalDateTime coveredFrom;
+    private String retention;
+    private int series;
+    private long samples;
+    private long bytes;
+    private long maxBytes;
+    private long evictions;
+    private int incompleteSeries;
+    private List<TimeSeriesStore.SeriesFootprint> largest;
+}
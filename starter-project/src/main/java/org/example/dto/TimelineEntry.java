@@ -0,0 +1,46 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.util.UuidOrder;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * One item of a patient's chart timeline: an encounter at its start or an observation
+ * at its effective time. Exactly one of {@code encounter} and {@code observation} is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimelineEntry {
+
+    /** Timeline order: newest first, ties broken by id compared unsigned, like the underlying indexes. */
+    public static final Comparator<TimelineEntry> NEWEST_FIRST =
+            Comparator.comparing(TimelineEntry::getTime).thenComparing(TimelineEntry::getId, UuidOrder.UNSIGNED).reversed();
+
+    private Type type;
+    private LocalDateTime time;
+    private UUID id;
+    private EncounterResponse encounter;
+    private ObservationResponse observation;
+
+    public static TimelineEntry of(EncounterResponse encounter) {
+        return new TimelineEntry(Type.ENCOUNTER, encounter.getStart(), encounter.getId(), encounter, null);
+    }
+
+    public static TimelineEntry of(ObservationResponse observation) {
+        return new TimelineEntry(Type.OBSERVATION, observation.getEffectiveDateTime(), observation.getId(), null, observation);
+    }
+
+    public enum Type {
+        ENCOUNTER, OBSERVATION
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.example.entity.id.TimeOrderedUuid;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,14 +18,15 @@ import java.util.UUID;
 @Table(name = "encounters",
     indexes = {
         @Index(name = "idx_encounter_patient_id", columnList = "patient_id"),
-        @Index(name = "idx_encounter_period", columnList = "start, end")
+        @Index(name = "idx_encounter_patient_start", columnList = "patient_id, start, id"),
+        @Index(name = "idx_encounter_period", columnList = "patient_id, start, end_time")
     })
 @Getter
 @Setter
 public class Encounter {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @CreationTimestamp
@@ -53,6 +56,7 @@ public class Encounter {
     private EncounterClass encounterClass;
 
     @OneToMany(mappedBy = "encounter", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Observation> observations = new ArrayList<>();
 
     public enum EncounterClass {
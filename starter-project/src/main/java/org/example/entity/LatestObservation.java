@@ -0,0 +1,93 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.util.UuidOrder;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The newest observation of each code for a patient, kept up to date by the
+ * observation ingest paths so a vitals snapshot reads one row per code instead
+ * of scanning the history. Ties on effective time go to the larger (later) id,
+ * compared unsigned as the database does.
+ */
+@Entity
+@Table(name = "latest_observations")
+@IdClass(LatestObservation.Key.class)
+@Getter
+@Setter
+public class LatestObservation {
+
+    /** Orders observations of one code from oldest to newest. */
+    public static final Comparator<Observation> RECENCY =
+            Comparator.comparing(Observation::getEffectiveDateTime).thenComparing(Observation::getId, UuidOrder.UNSIGNED);
+
+    @Id
+    @Column(name = "patient_id")
+    private UUID patientId;
+
+    @Id
+    @Column(length = 100)
+    private String code;
+
+    @Column(name = "observation_id", nullable = false)
+    private UUID observationId;
+
+    @Column(name = "encounter_id")
+    private UUID encounterId;
+
+    @Column(nullable = false, length = 255)
+    private String value;
+
+    @Column(name = "value_numeric")
+    private Double valueNumeric;
+
+    @Column(length = 32)
+    private String unit;
+
+    @Column(name = "effective_date_time", nullable = false)
+    private LocalDateTime effectiveDateTime;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    /**
+     * Whether the observation is newer than the one held, and should replace it.
+     */
+    public boolean isOlderThan(Observation observation) {
+        int byTime = observation.getEffectiveDateTime().compareTo(effectiveDateTime);
+        return byTime > 0 || byTime == 0 && UuidOrder.compare(observation.getId(), observationId) > 0;
+    }
+
+    public void copyFrom(Observation observation) {
+        this.patientId = observation.getPatient().getId();
+        this.code = observation.getCode();
+        this.observationId = observation.getId();
+        this.encounterId = observation.getEncounter() != null ? observation.getEncounter().getId() : null;
+        this.value = observation.getValue();
+        this.valueNumeric = observation.getValueNumeric();
+        this.unit = observation.getUnit();
+        this.effectiveDateTime = observation.getEffectiveDateTime();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID patientId;
+        private String code;
+    }
+}
@@ -2,6 +2,7 @@ package org.example.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.example.entity.id.TimeOrderedUuid;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,11 +10,22 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "observations")
+@Table(name = "observations", uniqueConstraints = {
+        @UniqueConstraint(name = Observation.UNIQUE_PATIENT_CODE_TIME, columnNames = {"patient_id", "code", "effective_date_time"})
+    }, indexes = {
+        @Index(name = "idx_observation_patient_time", columnList = "patient_id, effective_date_time, id"),
+        @Index(name = "idx_observation_patient_code_time", columnList = "patient_id, code, effective_date_time, id")
+    })
 public class Observation {
 
+    /**
+     * A patient has at most one observation of a code at an effective time; backs the
+     * duplicate check of the observation ingest.
+     */
+    public static final String UNIQUE_PATIENT_CODE_TIME = "uk_observation_patient_code_time";
+
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @CreationTimestamp
@@ -44,6 +56,13 @@ public class Observation {
     @Column(nullable = false, length = 255)
     private String value;
 
+    /** The value as a number when it parses as one, for range queries and aggregation. */
+    @Column(name = "value_numeric")
+    private Double valueNumeric;
+
+    @Column(length = 32)
+    private String unit;
+
     @NotNull(message = "Effective date/time is required")
     @Column(name = "effective_date_time", nullable = false)
     private LocalDateTime effectiveDateTime;
@@ -81,6 +100,22 @@ public class Observation {
         this.value = value;
     }
 
+    public Double getValueNumeric() {
+        return valueNumeric;
+    }
+
+    public void setValueNumeric(Double valueNumeric) {
+        this.valueNumeric = valueNumeric;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
     public LocalDateTime getEffectiveDateTime() {
         return effectiveDateTime;
     }
@@ -2,8 +2,13 @@ package org.example.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.example.entity.id.TimeOrderedUuid;
+import org.example.util.NameNormalizer;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,17 +19,26 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "patients", indexes = {
+@NamedEntityGraph(name = Patient.WITH_ENCOUNTERS, attributeNodes = @NamedAttributeNode("encounters"))
+@Table(name = "patients", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_patient_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_patient_email", columnNames = "email")
+    }, indexes = {
         @Index(name = "idx_patient_identifier", columnList = "identifier", unique = true),
         @Index(name = "idx_patient_name", columnList = "familyName, givenName"),
+        @Index(name = "idx_patient_family_name_id", columnList = "familyName, id"),
+        @Index(name = "idx_patient_family_name_norm", columnList = "family_name_norm"),
+        @Index(name = "idx_patient_given_name_norm", columnList = "given_name_norm"),
         @Index(name = "idx_patient_birth_date", columnList = "birthDate")
     })
 @Getter
 @Setter
 public class Patient {
 
+    public static final String WITH_ENCOUNTERS = "Patient.encounters";
+
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @CreationTimestamp
@@ -38,9 +52,18 @@ public class Patient {
     @Version
     private Long version;
 
+    /**
+     * Bumped when encounters or observations of the patient are written without loading it,
+     * such as streamed observations. Part of the ETag but not of the optimistic lock, so a
+     * demographics update never conflicts with them.
+     */
+    @ColumnDefault("0")
+    @Column(name = "children_version", nullable = false)
+    private long childrenVersion;
+
     @NotBlank(message = "Identifier is required")
     @Size(max = 50, message = "Identifier must be less than 50 characters")
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String identifier;
 
     @NotBlank(message = "Given name is required")
@@ -53,6 +76,18 @@ public class Patient {
     @Column(name = "family_name", nullable = false, length = 100)
     private String familyName;
 
+    /**
+     * Lower-cased, accent-folded copies of the names that the search predicates run against,
+     * kept in step by the name setters so the indexes can serve prefix and exact matches.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "given_name_norm", length = 100)
+    private String givenNameNormalized;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "family_name_norm", length = 100)
+    private String familyNameNormalized;
+
     @NotNull(message = "Birth date is required")
     @PastOrPresent(message = "Birth date must be in the past or present")
     @Column(name = "birth_date", nullable = false)
@@ -60,13 +95,13 @@ public class Patient {
 
     @NotBlank(message = "Username is required")
     @Size(max = 50, message = "Username must be less than 50 characters")
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
     @Size(max = 100, message = "Email must be less than 100 characters")
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Enumerated(EnumType.STRING)
@@ -78,11 +113,41 @@ public class Patient {
     }
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("start DESC")
+    @BatchSize(size = 50)
     private List<Encounter> encounters = new ArrayList<>();
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Observation> observations = new ArrayList<>();
 
+    public void setGivenName(String givenName) {
+        this.givenName = givenName;
+        this.givenNameNormalized = NameNormalizer.normalize(givenName);
+    }
+
+    public void setFamilyName(String familyName) {
+        this.familyName = familyName;
+        this.familyNameNormalized = NameNormalizer.normalize(familyName);
+    }
+
+    /**
+     * The observations of a graph built by the mapper, where an encounter's observations
+     * are only reachable through the encounter.
+     */
+    public List<Observation> collectObservations() {
+        List<Observation> all = new ArrayList<>();
+        if (observations != null) {
+            all.addAll(observations);
+        }
+        if (encounters != null) {
+            encounters.stream()
+                    .filter(encounter -> encounter.getObservations() != null)
+                    .forEach(encounter -> all.addAll(encounter.getObservations()));
+        }
+        return all;
+    }
+
     @Override
     public String toString() {
         return "Patient{" +
@@ -0,0 +1,47 @@
+package org.example.entity.id;
+
+import org.example.util.UuidV7;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Id generator behind {@link TimeOrderedUuid}. The UUID version is read from the
+ * {@value #UUID_VERSION_SETTING} Hibernate setting ({@code spring.jpa.properties.app.id.uuid-version}):
+ * {@code v7} (default) or {@code v4} for random ids, e.g. to compare the two.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    public static final String UUID_VERSION_SETTING = "app.id.uuid-version";
+
+    private final Supplier<UUID> generator;
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member idMember, CustomIdGeneratorCreationContext creationContext) {
+        String version = creationContext.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(UUID_VERSION_SETTING, value -> value.toString().trim().toLowerCase(Locale.ROOT), "v7");
+        this.generator = switch (version) {
+            case "v7" -> UuidV7::randomUuid;
+            case "v4" -> UUID::randomUUID;
+            default -> throw new IllegalArgumentException("Unsupported " + UUID_VERSION_SETTING + " '" + version + "'; expected v4 or v7");
+        };
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return generator.get();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.event;
+
+import lombok.Value;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.timeseries.ObservationSample;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after observations are written, carrying the patients they belong to and
+ * their numeric values so in-memory structures can follow the database. Listeners
+ * should react after commit.
+ */
+@Value
+public class ObservationsRecordedEvent {
+
+    Set<UUID> patientIds;
+    List<ObservationSample> samples;
+
+    public static ObservationsRecordedEvent of(Collection<Observation> observations) {
+        Set<UUID> patientIds = new HashSet<>();
+        List<ObservationSample> samples = new ArrayList<>();
+        for (Observation observation : observations) {
+            patientIds.add(observation.getPatient().getId());
+            if (observation.getValueNumeric() != null) {
+                samples.add(new ObservationSample(observation.getPatient().getId(), observation.getCode(),
+                        observation.getEffectiveDateTime(), observation.getValueNumeric(), observation.getUnit()));
+            }
+        }
+        // in-memory series append in time order; requests may list observations in any order
+        samples.sort(Comparator.comparing(ObservationSample::time));
+        return new ObservationsRecordedEvent(patientIds, samples);
+    }
+
+    /**
+     * The observations of a freshly persisted patient graph, direct and per encounter.
+     */
+    public static ObservationsRecordedEvent of(Patient patient) {
+        return of(patient.collectObservations());
+    }
+
+    public boolean isEmpty() {
+        return patientIds.isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.event;
+
+import lombok.Value;
+import org.example.dto.PatientSummaryResponse;
+
+import java.util.UUID;
+
+/**
+ * Published after a patient is created, updated or deleted so in-memory
+ * structures can follow the registry. Listeners should react after commit;
+ * the snapshot is null for deletions.
+ */
+@Value
+public class PatientChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    Type type;
+    UUID patientId;
+    PatientSummaryResponse patient;
+
+    public static PatientChangedEvent created(PatientSummaryResponse patient) {
+        return new PatientChangedEvent(Type.CREATED, patient.getId(), patient);
+    }
+
+    public static PatientChangedEvent updated(PatientSummaryResponse patient) {
+        return new PatientChangedEvent(Type.UPDATED, patient.getId(), patient);
+    }
+
+    public static PatientChangedEvent deleted(UUID patientId) {
+        return new PatientChangedEvent(Type.DELETED, patientId, null);
+    }
+}
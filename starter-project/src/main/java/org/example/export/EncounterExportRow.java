@@ -0,0 +1,16 @@
+package org.example.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.example.entity.Encounter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported encounter, read straight from the query without loading the entity.
+ */
+@JsonPropertyOrder({"id", "patientId", "start", "endTime", "encounterClass", "createdAt", "updatedAt"})
+public record EncounterExportRow(UUID id, UUID patientId, LocalDateTime start, LocalDateTime endTime,
+                                 Encounter.EncounterClass encounterClass,
+                                 LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,16 @@
+package org.example.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported observation, read straight from the query without loading the entity.
+ */
+@JsonPropertyOrder({"id", "patientId", "encounterId", "code", "value", "valueNumeric", "unit", "effectiveDateTime",
+        "createdAt", "updatedAt"})
+public record ObservationExportRow(UUID id, UUID patientId, UUID encounterId, String code, String value,
+                                   Double valueNumeric, String unit, LocalDateTime effectiveDateTime,
+                                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
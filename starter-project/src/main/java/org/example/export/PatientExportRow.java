@@ -0,0 +1,18 @@
+package org.example.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.example.entity.Patient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported patient, read straight from the query without loading the entity.
+ */
+@JsonPropertyOrder({"id", "identifier", "givenName", "familyName", "birthDate", "gender", "username", "email",
+        "createdAt", "updatedAt"})
+public record PatientExportRow(UUID id, String identifier, String givenName, String familyName, LocalDate birthDate,
+                               Patient.Gender gender, String username, String email,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,84 @@
+package org.example.mapper;
+
+import org.example.dto.ObservationRequest;
+import org.example.dto.PatientRequest;
+import org.example.entity.Encounter;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.util.QuantityParser;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Builds a transient Patient → Encounter → Observation graph from a request.
+ * The whole graph is persisted through the cascades on {@link Patient}, so a
+ * single flush writes it with JDBC statement batching.
+ */
+@Component
+public class PatientGraphMapper {
+
+    public Patient toPatientGraph(PatientRequest request) {
+        Patient patient = new Patient();
+        patient.setIdentifier(request.getIdentifier());
+        patient.setUsername(request.getUsername());
+        patient.setEmail(request.getEmail());
+        patient.setGender(request.getGender());
+        patient.setGivenName(request.getGivenName());
+        patient.setFamilyName(request.getFamilyName());
+        patient.setBirthDate(request.getBirthDate());
+        patient.setEncounters(new ArrayList<>());
+        patient.setObservations(new ArrayList<>());
+
+        if (request.getEncounters() != null) {
+            for (PatientRequest.EncounterRequest encReq : request.getEncounters()) {
+                patient.getEncounters().add(toEncounter(patient, encReq));
+            }
+        }
+
+        if (request.getObservations() != null) {
+            for (PatientRequest.ObservationRequest obsReq : request.getObservations()) {
+                patient.getObservations().add(toObservation(patient, null, obsReq));
+            }
+        }
+        return patient;
+    }
+
+    public Encounter toEncounter(Patient patient, PatientRequest.EncounterRequest request) {
+        Encounter encounter = new Encounter();
+        encounter.setPatient(patient);
+        encounter.setStart(request.getStart());
+        encounter.setEndTime(request.getEndTime());
+        encounter.setEncounterClass(Encounter.EncounterClass.valueOf(request.getEncounterClass().toUpperCase()));
+        encounter.setObservations(new ArrayList<>());
+
+        if (request.getObservations() != null) {
+            for (PatientRequest.ObservationRequest obsReq : request.getObservations()) {
+                encounter.getObservations().add(toObservation(patient, encounter, obsReq));
+            }
+        }
+        return encounter;
+    }
+
+    public Observation toObservation(Patient patient, Encounter encounter, PatientRequest.ObservationRequest request) {
+        return toObservation(patient, encounter, request.getCode(), request.getValue(), request.getUnit(), request.getEffectiveDateTime());
+    }
+
+    public Observation toObservation(Patient patient, Encounter encounter, ObservationRequest request) {
+        return toObservation(patient, encounter, request.getCode(), request.getValue(), request.getUnit(), request.getEffectiveDateTime());
+    }
+
+    private Observation toObservation(Patient patient, Encounter encounter, String code, String value, String unit, LocalDateTime effectiveDateTime) {
+        Observation observation = new Observation();
+        observation.setPatient(patient);
+        observation.setEncounter(encounter);
+        observation.setCode(code);
+        observation.setValue(value);
+        QuantityParser.Quantity quantity = QuantityParser.parse(value);
+        observation.setValueNumeric(quantity != null ? quantity.value() : null);
+        observation.setUnit(unit != null ? unit : quantity != null ? quantity.unit() : null);
+        observation.setEffectiveDateTime(effectiveDateTime);
+        return observation;
+    }
+}
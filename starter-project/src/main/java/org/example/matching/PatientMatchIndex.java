@@ -0,0 +1,247 @@
+package org.example.matching;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.apache.commons.codec.language.Soundex;
+import org.example.dto.DuplicatePair;
+import org.example.dto.DuplicateReport;
+import org.example.dto.PatientMatchCandidate;
+import org.example.dto.PatientSummaryResponse;
+import org.example.util.NameNormalizer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of patient names for duplicate detection.
+ * <p>
+ * Every patient is filed under phonetic keys of its names (Double Metaphone primary and
+ * alternate codes, Soundex) and under its birth date. A lookup only scores the patients
+ * sharing at least one key with the query, so a misspelt name such as "Otiyeno" still
+ * reaches "Otieno" without touching the database.
+ * <p>
+ * Reads are lock-free; writes are serialized so an entry and its postings change together.
+ */
+public class PatientMatchIndex {
+
+    private static final double FAMILY_WEIGHT = 0.45;
+    private static final double GIVEN_WEIGHT = 0.35;
+    private static final double BIRTH_DATE_WEIGHT = 0.20;
+
+    private final DoubleMetaphone doubleMetaphone = new DoubleMetaphone();
+    private final Soundex soundex = new Soundex();
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+    public int size() {
+        return entries.size();
+    }
+
+    public synchronized void put(PatientSummaryResponse patient) {
+        remove(patient.getId());
+        Entry entry = new Entry(patient.getId(), patient.getIdentifier(), patient.getGivenName(), patient.getFamilyName(),
+                patient.getBirthDate(), NameNormalizer.normalize(patient.getGivenName()), NameNormalizer.normalize(patient.getFamilyName()),
+                lookupKeys(patient.getFamilyName(), patient.getGivenName(), patient.getBirthDate()));
+        entries.put(entry.id(), entry);
+        entry.keys().forEach(key -> postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(entry.id()));
+    }
+
+    public synchronized void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys()) {
+            postings.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Rank the indexed patients against the given demographics. Only the supplied
+     * fields take part in the score.
+     */
+    public List<PatientMatchCandidate> find(String familyName, String givenName, LocalDate birthDate, double minScore, int limit) {
+        String family = NameNormalizer.normalize(familyName);
+        String given = NameNormalizer.normalize(givenName);
+
+        Set<UUID> candidates = new HashSet<>();
+        for (String key : lookupKeys(familyName, givenName, birthDate)) {
+            candidates.addAll(postings.getOrDefault(key, Set.of()));
+        }
+
+        return candidates.stream()
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .map(entry -> toCandidate(entry, score(entry, family, given, birthDate)))
+                .filter(candidate -> candidate.getScore() >= minScore)
+                .sorted(Comparator.comparing(PatientMatchCandidate::getScore).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Score the whole registry for duplicate pairs. Patients are grouped into blocks by
+     * family name sound plus birth year, and by birth date plus given name sound; only
+     * pairs within a block are compared, and blocks are processed in parallel.
+     */
+    public DuplicateReport findDuplicates(double minScore, int limit, int maxBlockSize) {
+        long startedAt = System.nanoTime();
+        List<Entry> snapshot = List.copyOf(entries.values());
+
+        Map<String, List<Entry>> blocks = snapshot.parallelStream()
+                .flatMap(entry -> blockingKeys(entry).stream().map(key -> Map.entry(key, entry)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        AtomicLong comparisons = new AtomicLong();
+        AtomicInteger skippedBlocks = new AtomicInteger();
+        Map<String, DuplicatePair> pairs = blocks.values().parallelStream()
+                .filter(block -> block.size() > 1)
+                .filter(block -> {
+                    if (block.size() > maxBlockSize) {
+                        skippedBlocks.incrementAndGet();
+                        return false;
+                    }
+                    return true;
+                })
+                .flatMap(block -> {
+                    List<DuplicatePair> found = new ArrayList<>();
+                    for (int i = 0; i < block.size(); i++) {
+                        for (int j = i + 1; j < block.size(); j++) {
+                            Entry a = block.get(i);
+                            Entry b = block.get(j);
+                            double score = score(a, b.familyNormalized(), b.givenNormalized(), b.birthDate());
+                            if (score >= minScore) {
+                                boolean ordered = a.id().compareTo(b.id()) < 0;
+                                found.add(new DuplicatePair(toCandidate(ordered ? a : b, null), toCandidate(ordered ? b : a, null), round(score)));
+                            }
+                        }
+                    }
+                    comparisons.addAndGet((long) block.size() * (block.size() - 1) / 2);
+                    return found.stream();
+                })
+                // the same pair can meet in both blocking passes
+                .collect(Collectors.toConcurrentMap(pair -> pair.getFirst().getId() + ":" + pair.getSecond().getId(),
+                        Function.identity(), (a, b) -> a));
+
+        List<DuplicatePair> ranked = pairs.values().stream()
+                .sorted(Comparator.comparingDouble(DuplicatePair::getScore).reversed())
+                .limit(limit)
+                .toList();
+
+        return DuplicateReport.builder()
+                .patientsScanned(snapshot.size())
+                .comparisons(comparisons.get())
+                .skippedBlocks(skippedBlocks.get())
+                .durationMillis((System.nanoTime() - startedAt) / 1_000_000)
+                .pairs(ranked)
+                .build();
+    }
+
+    private Set<String> lookupKeys(String familyName, String givenName, LocalDate birthDate) {
+        Set<String> keys = new HashSet<>();
+        phoneticKeys(familyName).forEach(code -> keys.add("F:" + code));
+        phoneticKeys(givenName).forEach(code -> keys.add("G:" + code));
+        if (birthDate != null) {
+            keys.add("B:" + birthDate);
+        }
+        return keys;
+    }
+
+    private Set<String> blockingKeys(Entry entry) {
+        Set<String> keys = new HashSet<>();
+        String family = phoneticInput(entry.familyName());
+        String given = phoneticInput(entry.givenName());
+        if (!family.isEmpty() && entry.birthDate() != null) {
+            keys.add("FY:" + doubleMetaphone.doubleMetaphone(family) + ":" + entry.birthDate().getYear());
+        }
+        if (!given.isEmpty() && entry.birthDate() != null) {
+            keys.add("BG:" + entry.birthDate() + ":" + soundex.soundex(given));
+        }
+        return keys;
+    }
+
+    private Set<String> phoneticKeys(String name) {
+        String input = phoneticInput(name);
+        if (input.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> codes = new HashSet<>();
+        codes.add("dm" + doubleMetaphone.doubleMetaphone(input));
+        codes.add("dm" + doubleMetaphone.doubleMetaphone(input, true));
+        codes.add("sx" + soundex.soundex(input));
+        return codes;
+    }
+
+    /**
+     * The encoders only understand A-Z, so names are accent-folded and stripped of everything else.
+     */
+    private static String phoneticInput(String name) {
+        String normalized = NameNormalizer.normalize(name);
+        return normalized == null ? "" : normalized.replaceAll("[^a-z]", "");
+    }
+
+    private static double score(Entry entry, String family, String given, LocalDate birthDate) {
+        double total = 0;
+        double weight = 0;
+        if (family != null && !family.isEmpty()) {
+            total += FAMILY_WEIGHT * JaroWinkler.similarity(family, entry.familyNormalized());
+            weight += FAMILY_WEIGHT;
+        }
+        if (given != null && !given.isEmpty()) {
+            total += GIVEN_WEIGHT * JaroWinkler.similarity(given, entry.givenNormalized());
+            weight += GIVEN_WEIGHT;
+        }
+        if (birthDate != null) {
+            total += BIRTH_DATE_WEIGHT * birthDateSimilarity(birthDate, entry.birthDate());
+            weight += BIRTH_DATE_WEIGHT;
+        }
+        return weight == 0 ? 0 : total / weight;
+    }
+
+    /**
+     * Exact dates score 1; the usual data-entry slips (day and month swapped, or the
+     * right day and month one year off) still score partially.
+     */
+    private static double birthDateSimilarity(LocalDate a, LocalDate b) {
+        if (b == null) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+        boolean swapped = a.getYear() == b.getYear()
+                && a.getMonthValue() == b.getDayOfMonth() && a.getDayOfMonth() == b.getMonthValue();
+        boolean yearOff = a.getMonthValue() == b.getMonthValue() && a.getDayOfMonth() == b.getDayOfMonth()
+                && Math.abs(a.getYear() - b.getYear()) == 1;
+        return swapped || yearOff ? 0.7 : 0;
+    }
+
+    private static PatientMatchCandidate toCandidate(Entry entry, Double score) {
+        return new PatientMatchCandidate(entry.id(), entry.identifier(), entry.givenName(), entry.familyName(),
+                entry.birthDate(), score == null ? null : round(score));
+    }
+
+    private static double round(double score) {
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    private record Entry(UUID id, String identifier, String givenName, String familyName, LocalDate birthDate,
+                         String givenNormalized, String familyNormalized, Set<String> keys) {
+    }
+}
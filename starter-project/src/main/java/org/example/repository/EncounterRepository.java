@@ -1,23 +1,32 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Encounter;
-import org.example.entity.Patient;
+import org.example.export.EncounterExportRow;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface EncounterRepository extends JpaRepository<Encounter, Long> {
+public interface EncounterRepository extends JpaRepository<Encounter, UUID>, JpaSpecificationExecutor<Encounter> {
 
     List<Encounter> findByPatientIdOrderByStartDesc(UUID patientId);
 
+    List<Encounter> findByPatientIdOrderByStartDescIdDesc(UUID patientId, Limit limit);
+
     /**
      * Find all encounters for a specific patient with pagination
      * @param patientId The ID of the patient
@@ -26,28 +35,89 @@ public interface EncounterRepository extends JpaRepository<Encounter, Long> {
      */
     Page<Encounter> findByPatientId(UUID patientId, Pageable pageable);
 
+    long countByPatientId(UUID patientId);
+
+    /**
+     * Find the encounters of a patient that overlap [from, to], newest first. An encounter
+     * without an end is still open and overlaps everything after its start. Both bounds are
+     * on the (patient_id, start, end_time) index.
+     * @param patientId The ID of the patient
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (inclusive)
+     * @return Overlapping encounters
+     */
     @Query("""
-        SELECT e FROM Encounter e 
-        WHERE e.patient = :patient 
-        AND (e.start BETWEEN :startDate AND :endDate 
-             OR e.endTime BETWEEN :startDate AND :endDate)
+        SELECT e FROM Encounter e
+        WHERE e.patient.id = :patientId
+        AND e.start <= :to
+        AND (e.endTime IS NULL OR e.endTime >= :from)
+        ORDER BY e.start DESC, e.id DESC
     """)
     List<Encounter> findEncountersByPatientAndDateRange(
-            @Param("patient") Patient patient,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("patientId") UUID patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Find the encounters of any of the given patients that overlap [from, to], for building
+     * per-patient interval trees.
+     */
+    @Query("""
+        SELECT e FROM Encounter e
+        WHERE e.patient.id IN :patientIds
+        AND e.start <= :to
+        AND (e.endTime IS NULL OR e.endTime >= :from)
+    """)
+    List<Encounter> findEncountersByPatientsAndDateRange(
+            @Param("patientIds") Collection<UUID> patientIds,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
     @Query("""
-        SELECT COUNT(e) > 0 
-        FROM Encounter e 
-        WHERE e.patient = :patient 
-        AND e.start <= :endDate 
-        AND (e.endTime IS NULL OR e.endTime >= :startDate)
+        SELECT e.id FROM Encounter e
+        WHERE e.patient.id = :patientId
+        AND e.start <= :to
+        AND (e.endTime IS NULL OR e.endTime >= :from)
     """)
-    boolean hasOverlappingEncounters(
-            @Param("patient") Patient patient,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+    List<UUID> findOverlappingIds(
+            @Param("patientId") UUID patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Limit limit
     );
+
+    /**
+     * Whether any encounter of the patient overlaps [from, to]. Stops at the first match
+     * instead of counting them all.
+     */
+    default boolean hasOverlappingEncounters(UUID patientId, LocalDateTime from, LocalDateTime to) {
+        return !findOverlappingIds(patientId, from, to, Limit.of(1)).isEmpty();
+    }
+
+    /**
+     * The owning patient of each of the given encounters that exists.
+     */
+    @Query("SELECT e.id AS id, e.patient.id AS patientId FROM Encounter e WHERE e.id IN :ids")
+    List<EncounterOwner> findOwners(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Stream every encounter changed at or after {@code since} (all encounters if null) for
+     * export, without loading entities. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.export.EncounterExportRow(e.id, e.patient.id, e.start, e.endTime,
+            e.encounterClass, e.createdAt, e.updatedAt)
+        FROM Encounter e
+        WHERE :since IS NULL OR e.updatedAt >= :since
+        ORDER BY e.id
+    """)
+    Stream<EncounterExportRow> streamForExport(@Param("since") LocalDateTime since);
+
+    interface EncounterOwner {
+        UUID getId();
+        UUID getPatientId();
+    }
 }
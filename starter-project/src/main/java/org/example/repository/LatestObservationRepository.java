@@ -0,0 +1,47 @@
+package org.example.repository;
+
+import org.example.entity.LatestObservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LatestObservationRepository extends JpaRepository<LatestObservation, LatestObservation.Key> {
+
+    List<LatestObservation> findByPatientIdOrderByCode(UUID patientId);
+
+    /** Any row, to tell an empty table without counting a full one. */
+    Optional<LatestObservation> findFirstBy();
+
+    List<LatestObservation> findByPatientIdIn(Collection<UUID> patientIds);
+
+    @Modifying
+    @Query("DELETE FROM LatestObservation l WHERE l.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") UUID patientId);
+
+    @Modifying
+    @Query("DELETE FROM LatestObservation l")
+    int deleteAllInBulk();
+
+    /**
+     * Recompute every row from the observations in one statement. The NOT EXISTS probe
+     * runs on the (patient_id, code, effective_date_time, id) index.
+     */
+    @Modifying
+    @Query("""
+        INSERT INTO LatestObservation (patientId, code, observationId, encounterId, value, valueNumeric, unit, effectiveDateTime, updatedAt, version)
+        SELECT o.patient.id, o.code, o.id, o.encounter.id, o.value, o.valueNumeric, o.unit, o.effectiveDateTime, CURRENT_TIMESTAMP, 0
+        FROM Observation o
+        WHERE NOT EXISTS (
+            SELECT 1 FROM Observation n
+            WHERE n.patient = o.patient AND n.code = o.code
+                AND (n.effectiveDateTime > o.effectiveDateTime OR (n.effectiveDateTime = o.effectiveDateTime AND n.id > o.id))
+        )
+    """)
+    int insertFromObservations();
+}
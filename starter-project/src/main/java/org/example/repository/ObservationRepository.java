@@ -1,11 +1,86 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Observation;
+import org.example.export.ObservationExportRow;
+import org.example.timeseries.ObservationPoint;
+import org.example.timeseries.ObservationSample;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ObservationRepository extends JpaRepository<Observation, UUID> {
+public interface ObservationRepository extends JpaRepository<Observation, UUID>, JpaSpecificationExecutor<Observation>, ObservationSearchRepository {
     List<Observation> findByPatientIdOrderByEffectiveDateTimeDesc(UUID patientId);
+
+    List<Observation> findByPatientIdInOrderByEffectiveDateTimeDesc(Collection<UUID> patientIds);
+
+    /**
+     * Numeric samples of one code in [from, to), oldest first, read from the
+     * (patient_id, code, effective_date_time) index. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.timeseries.ObservationPoint(o.effectiveDateTime, o.valueNumeric, o.unit)
+        FROM Observation o
+        WHERE o.patient.id = :patientId AND o.code = :code AND o.valueNumeric IS NOT NULL
+            AND o.effectiveDateTime >= :from AND o.effectiveDateTime < :to
+        ORDER BY o.effectiveDateTime
+    """)
+    Stream<ObservationPoint> streamNumericSeries(@Param("patientId") UUID patientId, @Param("code") String code,
+                                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Every numeric sample at or after {@code from}, oldest first, for warming the
+     * in-memory series. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.timeseries.ObservationSample(o.patient.id, o.code, o.effectiveDateTime, o.valueNumeric, o.unit)
+        FROM Observation o
+        WHERE o.valueNumeric IS NOT NULL AND o.effectiveDateTime >= :from
+        ORDER BY o.effectiveDateTime
+    """)
+    Stream<ObservationSample> streamNumericSince(@Param("from") LocalDateTime from);
+
+    /**
+     * Stream every observation changed at or after {@code since} (all observations if null) for
+     * export, without loading entities. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.export.ObservationExportRow(o.id, o.patient.id, o.encounter.id, o.code, o.value,
+            o.valueNumeric, o.unit, o.effectiveDateTime, o.createdAt, o.updatedAt)
+        FROM Observation o
+        WHERE :since IS NULL OR o.updatedAt >= :since
+        ORDER BY o.id
+    """)
+    Stream<ObservationExportRow> streamForExport(@Param("since") LocalDateTime since);
+
+    /**
+     * The (patient, code, effective time) of the stored observations that could clash with
+     * a batch being ingested, read from the (patient_id, code, effective_date_time) index.
+     */
+    @Query("""
+        SELECT o.patient.id AS patientId, o.code AS code, o.effectiveDateTime AS effectiveDateTime
+        FROM Observation o
+        WHERE o.patient.id IN :patientIds AND o.code IN :codes
+            AND o.effectiveDateTime BETWEEN :from AND :to
+    """)
+    List<ObservationKey> findKeys(@Param("patientIds") Collection<UUID> patientIds, @Param("codes") Collection<String> codes,
+                                  @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface ObservationKey {
+        UUID getPatientId();
+        String getCode();
+        LocalDateTime getEffectiveDateTime();
+    }
 }
@@ -0,0 +1,24 @@
+package org.example.repository;
+
+import org.example.dto.ObservationResponse;
+import org.example.entity.Observation;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Observation queries that project straight into DTOs.
+ */
+public interface ObservationSearchRepository {
+
+    /**
+     * Stream the first {@code limit} matching observations from a forward-only cursor without
+     * hydrating {@link Observation} entities. Must be consumed inside a transaction and closed afterwards.
+     * @param specification Filter and keyset predicates
+     * @param sort Sort order, ending with the id tiebreaker
+     * @param limit Maximum number of rows
+     * @return Observation responses
+     */
+    Stream<ObservationResponse> streamResponses(Specification<Observation> specification, Sort sort, int limit);
+}
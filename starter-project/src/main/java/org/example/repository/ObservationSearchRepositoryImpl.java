@@ -0,0 +1,53 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.ObservationResponse;
+import org.example.entity.Observation;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ObservationSearchRepositoryImpl implements ObservationSearchRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<ObservationResponse> streamResponses(Specification<Observation> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ObservationResponse> query = builder.createQuery(ObservationResponse.class);
+        Root<Observation> root = query.from(Observation.class);
+
+        // the field order must match ObservationResponse; the encounter id is read from the foreign key
+        query.select(builder.construct(ObservationResponse.class,
+                root.get("id"),
+                root.get("patient").get("id"),
+                root.get("encounter").get("id"),
+                root.get("code"),
+                root.get("value"),
+                root.get("valueNumeric"),
+                root.get("unit"),
+                root.get("effectiveDateTime")));
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+}
@@ -1,19 +1,51 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.PatientSummaryResponse;
+import org.example.dto.PatientVersion;
 import org.example.entity.Patient;
+import org.example.export.PatientExportRow;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpecificationExecutor<Patient> {
+public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpecificationExecutor<Patient>, PatientSearchRepository {
     
     Optional<Patient> findByIdentifier(String identifier);
+
+    /**
+     * Find a patient together with its encounters in a single query.
+     * @param id The ID of the patient
+     * @return The patient with its encounters initialized
+     */
+    @EntityGraph(Patient.WITH_ENCOUNTERS)
+    Optional<Patient> findWithEncountersById(UUID id);
+
+    /**
+     * Find the given patients together with their encounters in a single query.
+     * @param ids The IDs of the patients
+     * @return The patients found, with their encounters initialized
+     */
+    @EntityGraph(Patient.WITH_ENCOUNTERS)
+    List<Patient> findWithEncountersByIdIn(Collection<UUID> ids);
+
+    List<Patient> findByIdIn(Collection<UUID> ids);
     
     List<Patient> findByFamilyNameContainingIgnoreCaseAndGivenNameContainingIgnoreCase(
             String familyName, String givenName);
@@ -25,4 +57,81 @@ public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpec
     boolean existsByIdentifier(String identifier);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    /**
+     * Read only the optimistic-locking version and the children version of a patient.
+     * @param id The ID of the patient
+     * @return The versions, or empty if the patient does not exist
+     */
+    @Query("SELECT new org.example.dto.PatientVersion(p.version, p.childrenVersion) FROM Patient p WHERE p.id = :id")
+    Optional<PatientVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Find the unique keys of all patients clashing with any of the given values
+     * in a single round trip.
+     * @param identifiers Candidate identifiers
+     * @param usernames Candidate usernames
+     * @param emails Candidate emails
+     * @return Unique keys of the existing patients that conflict
+     */
+    @Query("""
+        SELECT p.id AS id, p.identifier AS identifier, p.username AS username, p.email AS email
+        FROM Patient p
+        WHERE p.identifier IN :identifiers
+        OR p.username IN :usernames
+        OR p.email IN :emails
+    """)
+    List<UniqueKeys> findUniqueKeyConflicts(
+            @Param("identifiers") Collection<String> identifiers,
+            @Param("usernames") Collection<String> usernames,
+            @Param("emails") Collection<String> emails
+    );
+
+    /**
+     * Stream the demographics of every patient, for building in-memory indexes.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return Summaries of all patients
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.dto.PatientSummaryResponse(p.id, p.identifier, p.givenName, p.familyName,
+            p.username, p.email, p.birthDate, p.gender, p.createdAt, p.updatedAt)
+        FROM Patient p
+    """)
+    Stream<PatientSummaryResponse> streamAllSummaries();
+
+    /**
+     * The subset of the given ids that belong to existing patients.
+     */
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Bump the children version of patients whose child records changed without loading
+     * them, so their ETags change. The optimistic-locking version is left alone.
+     */
+    @Modifying
+    @Query("UPDATE Patient p SET p.childrenVersion = p.childrenVersion + 1 WHERE p.id IN :ids")
+    int incrementChildrenVersions(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Stream every patient changed at or after {@code since} (all patients if null) for
+     * export, without loading entities. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new org.example.export.PatientExportRow(p.id, p.identifier, p.givenName, p.familyName,
+            p.birthDate, p.gender, p.username, p.email, p.createdAt, p.updatedAt)
+        FROM Patient p
+        WHERE :since IS NULL OR p.updatedAt >= :since
+        ORDER BY p.id
+    """)
+    Stream<PatientExportRow> streamForExport(@Param("since") LocalDateTime since);
+
+    interface UniqueKeys {
+        UUID getId();
+        String getIdentifier();
+        String getUsername();
+        String getEmail();
+    }
 }
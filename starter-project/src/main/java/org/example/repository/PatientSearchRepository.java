@@ -0,0 +1,53 @@
+package org.example.repository;
+
+import org.example.dto.PatientSummaryResponse;
+import org.example.entity.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Search queries that project patients straight into DTOs.
+ */
+public interface PatientSearchRepository {
+
+    /**
+     * Find the demographic columns of matching patients without hydrating
+     * {@link Patient} entities or touching the child tables.
+     * @param specification Search predicates
+     * @param pageable Pagination and sorting information
+     * @return Page of patient summaries
+     */
+    Page<PatientSummaryResponse> findSummaries(Specification<Patient> specification, Pageable pageable);
+
+    /**
+     * Find the first {@code limit} matching patient summaries without a count query.
+     * Used for keyset pagination, where the keyset predicate is part of the specification.
+     * @param specification Search and keyset predicates
+     * @param sort Sort order, ending with the id tiebreaker
+     * @param limit Maximum number of rows
+     * @return Patient summaries
+     */
+    List<PatientSummaryResponse> findSummaries(Specification<Patient> specification, Sort sort, int limit);
+
+    /**
+     * Stream the first {@code limit} matching patient summaries from a forward-only cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @param specification Search and keyset predicates
+     * @param sort Sort order, ending with the id tiebreaker
+     * @param limit Maximum number of rows
+     * @return Patient summaries
+     */
+    Stream<PatientSummaryResponse> streamSummaries(Specification<Patient> specification, Sort sort, int limit);
+
+    /**
+     * Estimate the number of patients from the planner statistics on PostgreSQL,
+     * falling back to an exact count on databases without them.
+     * @return Approximate number of rows in the patients table
+     */
+    long approximateCount();
+}
@@ -0,0 +1,112 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.PatientSummaryResponse;
+import org.example.entity.Patient;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class PatientSearchRepositoryImpl implements PatientSearchRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<PatientSummaryResponse> findSummaries(Specification<Patient> specification, Pageable pageable) {
+        TypedQuery<PatientSummaryResponse> query = summaryQuery(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<PatientSummaryResponse> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<PatientSummaryResponse> findSummaries(Specification<Patient> specification, Sort sort, int limit) {
+        return summaryQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<PatientSummaryResponse> streamSummaries(Specification<Patient> specification, Sort sort, int limit) {
+        return summaryQuery(specification, sort)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public long approximateCount() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect) {
+            Number estimate = (Number) entityManager
+                    .createNativeQuery("SELECT reltuples FROM pg_class WHERE relname = 'patients'")
+                    .getSingleResult();
+            // reltuples is -1 until the table has been vacuumed or analyzed
+            if (estimate != null && estimate.longValue() >= 0) {
+                return estimate.longValue();
+            }
+        }
+        return count((root, query, builder) -> null);
+    }
+
+    private TypedQuery<PatientSummaryResponse> summaryQuery(Specification<Patient> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientSummaryResponse> query = builder.createQuery(PatientSummaryResponse.class);
+        Root<Patient> root = query.from(Patient.class);
+
+        query.select(builder.construct(PatientSummaryResponse.class,
+                root.get("id"),
+                root.get("identifier"),
+                root.get("givenName"),
+                root.get("familyName"),
+                root.get("username"),
+                root.get("email"),
+                root.get("birthDate"),
+                root.get("gender"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Patient> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Patient> root = query.from(Patient.class);
+        query.select(builder.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
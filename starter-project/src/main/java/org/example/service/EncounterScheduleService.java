@@ -0,0 +1,22 @@
+package org.example.service;
+
+import org.example.dto.EncounterOverlapResult;
+import org.example.dto.EncounterSlot;
+
+import java.util.List;
+
+/**
+ * Service interface for checking proposed encounter times against booked ones.
+ */
+public interface EncounterScheduleService {
+
+    /**
+     * Check many proposed slots at once. The booked encounters of all the patients are read in
+     * one query and indexed in an interval tree per patient, so each slot costs a tree lookup.
+     * Encounters without an end are treated as still open.
+     * @param slots Proposed slots, each with a patient, start and end
+     * @return One result per slot, in request order; slots of unknown patients carry an error
+     * @throws IllegalArgumentException if a slot ends before it starts
+     */
+    List<EncounterOverlapResult> findOverlaps(List<EncounterSlot> slots);
+}
@@ -0,0 +1,45 @@
+package org.example.service;
+
+import org.example.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for bulk exports to the reporting warehouse.
+ * Rows are read from a forward-only cursor and written as they arrive, so memory use
+ * does not grow with the size of the export. The output stream is left open.
+ */
+public interface ExportService {
+
+    /**
+     * Write every patient changed at or after {@code since}, ordered by id.
+     * @param since Earliest update time (inclusive), or null for all patients
+     * @param format Output format
+     * @param out Stream to write to
+     * @return Number of patients written
+     * @throws IOException if writing fails, for example because the client went away
+     */
+    long exportPatients(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Write every encounter changed at or after {@code since}, ordered by id.
+     * @param since Earliest update time (inclusive), or null for all encounters
+     * @param format Output format
+     * @param out Stream to write to
+     * @return Number of encounters written
+     * @throws IOException if writing fails, for example because the client went away
+     */
+    long exportEncounters(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Write every observation changed at or after {@code since}, ordered by id.
+     * @param since Earliest update time (inclusive), or null for all observations
+     * @param format Output format
+     * @param out Stream to write to
+     * @return Number of observations written
+     * @throws IOException if writing fails, for example because the client went away
+     */
+    long exportObservations(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException;
+}
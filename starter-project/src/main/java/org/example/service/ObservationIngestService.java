@@ -0,0 +1,22 @@
+package org.example.service;
+
+import org.example.dto.ObservationIngestResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for streaming observations from device feeds.
+ */
+public interface ObservationIngestService {
+
+    /**
+     * Queue a stream of newline-delimited JSON {@code ObservationRequest} records for
+     * group commit. Reading stops at the first record that does not fit in the queue;
+     * the response then says which line to resend from.
+     * @param ndjson One observation per line, each tagged with its patient and optional encounter
+     * @return Counts of accepted and rejected records, and whether the request was throttled
+     * @throws IOException if the stream cannot be read
+     */
+    ObservationIngestResponse ingest(InputStream ndjson) throws IOException;
+}
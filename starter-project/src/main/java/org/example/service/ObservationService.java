@@ -1,10 +1,86 @@
 package org.example.service;
 
+import org.example.dto.CursorPage;
 import org.example.dto.ObservationResponse;
+import org.example.dto.ObservationSeriesResponse;
+import org.example.dto.TimeSeriesStoreStats;
+import org.example.exception.ResourceNotFoundException;
+import org.example.util.ItemSink;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Service interface for reading patient observations.
+ */
 public interface ObservationService {
-    List<ObservationResponse> getObservationsByPatientId(UUID patientId);
+
+    /**
+     * Get a slice of a patient's observations, newest first, with keyset pagination.
+     * Served from the (patient_id[, code], effective_date_time, id) indexes.
+     * @param patientId The ID of the patient
+     * @param code Observation code to filter by, or null for all codes
+     * @param from Earliest effective time (inclusive), or null
+     * @param to Latest effective time (exclusive), or null
+     * @param after Cursor returned with the previous slice, or blank for the first slice
+     * @param limit Maximum number of observations
+     * @return Slice of observations with the cursor of the next slice
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the window is empty or the cursor is malformed
+     */
+    CursorPage<ObservationResponse> getObservations(UUID patientId, String code, LocalDateTime from, LocalDateTime to, String after, int limit);
+
+    /**
+     * Like {@link #getObservations}, but hands each observation to {@code sink} as it is read
+     * from the database cursor instead of collecting the slice, so large slices take constant memory.
+     * @param sink Receives the observations of the slice, newest first
+     * @return The slice metadata (size, hasNext, nextCursor) without content
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the window is empty or the cursor is malformed
+     * @throws IOException if the sink fails, for example because the client went away
+     */
+    CursorPage<ObservationResponse> streamObservations(UUID patientId, String code, LocalDateTime from, LocalDateTime to, String after, int limit,
+                                                       ItemSink<ObservationResponse> sink) throws IOException;
+
+    /**
+     * Downsample a patient's numeric values of one code into fixed time buckets.
+     * Only observations whose value parsed as a number take part. The part of the window
+     * inside the retention of the in-memory observation store is served from memory.
+     * @param patientId The ID of the patient
+     * @param code Observation code
+     * @param from Start of the window (inclusive), or null for 30 days before {@code to}
+     * @param to End of the window (exclusive), or null for now
+     * @param bucket Bucket width
+     * @return min/max/avg/count per non-empty bucket, oldest first
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the window is empty or would span too many buckets
+     */
+    ObservationSeriesResponse getObservationSeries(UUID patientId, String code, LocalDateTime from, LocalDateTime to, Duration bucket);
+
+    /**
+     * Get the newest observation of every code recorded for a patient, in one
+     * indexed read per code rather than a scan of the history.
+     * @param patientId The ID of the patient
+     * @return The newest observation per code, ordered by code
+     * @throws ResourceNotFoundException if patient is not found
+     */
+    List<ObservationResponse> getLatestObservations(UUID patientId);
+
+    /**
+     * Recompute the newest-observation-per-code snapshot of every patient from the
+     * observations, e.g. to backfill it or repair it after writes that bypassed the service.
+     * @return Number of (patient, code) rows written
+     */
+    int rebuildLatestObservations();
+
+    /**
+     * Memory footprint of the recent observation store and of its largest series.
+     * @param patientId Only series of this patient, or null for all
+     * @param limit Maximum number of series listed
+     * @return Store totals and the largest series, largest first
+     */
+    TimeSeriesStoreStats getTimeSeriesStoreStats(UUID patientId, int limit);
 }
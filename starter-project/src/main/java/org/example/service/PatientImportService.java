@@ -0,0 +1,22 @@
+package org.example.service;
+
+import org.example.dto.BulkImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk loading patients.
+ */
+public interface PatientImportService {
+
+    /**
+     * Import a stream of newline-delimited JSON {@code PatientRequest} graphs.
+     * Records are validated and inserted in chunks, each chunk committed in its own
+     * transaction, so a bad record only fails itself.
+     * @param ndjson One patient request per line
+     * @return Outcome counts, the failed records up to a limit, and throughput
+     * @throws IOException if the stream cannot be read
+     */
+    BulkImportResponse importPatients(InputStream ndjson) throws IOException;
+}
@@ -0,0 +1,37 @@
+package org.example.service;
+
+import org.example.dto.DuplicateReport;
+import org.example.dto.PatientMatchCandidate;
+import org.example.exception.ServiceUnavailableException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for finding probable duplicate patients.
+ * Answers come from an in-memory index kept in step with the registry, not from the database.
+ */
+public interface PatientMatchService {
+
+    /**
+     * Find patients that probably are the person described, best match first.
+     * @param familyName Family name, possibly misspelt
+     * @param givenName Given name, possibly misspelt
+     * @param birthDate Birth date
+     * @param minScore Lowest similarity score to return, between 0 and 1
+     * @param limit Maximum number of candidates
+     * @return Ranked candidates
+     * @throws IllegalArgumentException if no name or birth date is given
+     * @throws ServiceUnavailableException if the index is still loading
+     */
+    List<PatientMatchCandidate> findMatches(String familyName, String givenName, LocalDate birthDate, double minScore, int limit);
+
+    /**
+     * Score the whole registry for pairs of probable duplicates, using all cores.
+     * @param minScore Lowest similarity score to report, between 0 and 1
+     * @param limit Maximum number of pairs
+     * @return Highest scoring pairs and scan statistics
+     * @throws ServiceUnavailableException if the index is still loading
+     */
+    DuplicateReport findDuplicates(double minScore, int limit);
+}
@@ -0,0 +1,27 @@
+package org.example.service;
+
+import org.example.dto.PatientResponse;
+import org.example.exception.ResourceNotFoundException;
+import org.example.exception.ServiceUnavailableException;
+
+import java.util.UUID;
+
+/**
+ * Service interface for the full patient record, assembled from parts loaded in parallel.
+ */
+public interface PatientRecordService {
+
+    /**
+     * Get a patient's demographics, latest encounters, vitals snapshot and recent observations.
+     * The four parts are loaded concurrently, each in its own read-only transaction, so the
+     * latency is that of the slowest part rather than their sum. Parts that fail or are not
+     * loaded within the part timeout are left out and the response is flagged as partial.
+     * @param id Patient ID
+     * @param encounterLimit Maximum number of encounters, newest first
+     * @param observationLimit Maximum number of observations, newest first
+     * @return Patient record
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws ServiceUnavailableException if the demographics could not be loaded in time
+     */
+    PatientResponse getPatientRecord(UUID id, int encounterLimit, int observationLimit);
+}
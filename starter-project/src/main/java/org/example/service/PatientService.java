@@ -1,16 +1,29 @@
 package org.example.service;
 
+import org.example.dto.CursorPage;
 import org.example.dto.EncounterResponse;
+import org.example.dto.PatientBatchEntry;
+import org.example.dto.PatientFetchPlan;
 import org.example.dto.PatientRequest;
 import org.example.dto.PatientResponse;
+import org.example.dto.PatientSummaryResponse;
+import org.example.dto.PatientVersion;
+import org.example.exception.PreconditionFailedException;
 import org.example.exception.ResourceNotFoundException;
 import org.example.entity.Encounter;
 import org.example.entity.Patient;
+import org.example.specification.NameMatchMode;
+import org.example.util.ItemSink;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -33,7 +46,35 @@ public interface PatientService {
      * @throws ResourceNotFoundException if patient is not found
      */
     PatientResponse getPatientById(UUID id);
+
+    /**
+     * Get a patient by ID, loading only the child collections in the plan.
+     * The whole graph is read in at most three queries regardless of its size.
+     * @param id Patient ID
+     * @param plan Child collections to load
+     * @return Patient data
+     * @throws ResourceNotFoundException if patient is not found
+     */
+    PatientResponse getPatientById(UUID id, PatientFetchPlan plan);
+
+    /**
+     * Get many patients in one round trip, loading only the child collections in the plan.
+     * Patients (with their encounters, when requested) are read with one IN query and
+     * observations with one more, however many ids are given.
+     * @param ids Patient IDs; duplicates are resolved once
+     * @param plan Child collections to load
+     * @return One entry per distinct id, in request order, marking ids with no patient as not found
+     */
+    Map<UUID, PatientBatchEntry> getPatientsByIds(List<UUID> ids, PatientFetchPlan plan);
     
+    /**
+     * Get the current versions of a patient with a version-only query, for conditional requests.
+     * @param id Patient ID
+     * @return Demographics and children versions of the patient
+     * @throws ResourceNotFoundException if patient is not found
+     */
+    PatientVersion getPatientVersion(UUID id);
+
     /**
      * Update an existing patient.
      * @param id Patient ID
@@ -43,6 +84,18 @@ public interface PatientService {
      * @throws IllegalArgumentException if the new identifier is already in use
      */
     PatientResponse updatePatient(UUID id, PatientRequest request);
+
+    /**
+     * Update an existing patient if it is still at one of the expected versions.
+     * @param id Patient ID
+     * @param request Updated patient data
+     * @param expectedVersions Versions the client has seen (from If-Match), or null to skip the check
+     * @return Updated patient
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws PreconditionFailedException if the patient is at another version or changes concurrently
+     * @throws IllegalArgumentException if the new identifier, username or email is already in use
+     */
+    PatientResponse updatePatient(UUID id, PatientRequest request, Set<Long> expectedVersions);
     
     /**
      * Delete a patient by ID.
@@ -55,18 +108,20 @@ public interface PatientService {
      * Search patients by various criteria.
      * All parameters are optional. If a parameter is null, it will be ignored in the search.
      * 
-     * @param familyName Full or partial family name (case-insensitive)
-     * @param givenName Full or partial given name (case-insensitive)
+     * @param familyName Family name or part of it (case- and accent-insensitive)
+     * @param givenName Given name or part of it (case- and accent-insensitive)
+     * @param match How the names are matched; prefix and exact can use the name indexes
      * @param identifier Exact identifier match
      * @param birthDate Exact birth date match
      * @param startDate Start of date range (inclusive)
      * @param endDate End of date range (inclusive)
      * @param pageable Pagination and sorting information
-     * @return Page of matching patients
+     * @return Page of matching patients, demographics only
      */
-    Page<PatientResponse> searchPatients(
+    Page<PatientSummaryResponse> searchPatients(
             String familyName,
             String givenName,
+            NameMatchMode match,
             String identifier,
             LocalDate birthDate,
             LocalDate startDate,
@@ -74,6 +129,52 @@ public interface PatientService {
             Pageable pageable
     );
     
+    /**
+     * Search patients with keyset pagination, ordered by family name and id.
+     * Deep pages cost the same as the first one and no count query is run
+     * unless {@code approximateTotal} is requested.
+     *
+     * @param after Cursor returned with the previous page, or blank for the first page
+     * @param size Page size
+     * @param approximateTotal Whether to include an (estimated) total
+     * @return Slice of matching patients with the cursor of the next slice
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<PatientSummaryResponse> searchPatientsAfter(
+            String familyName,
+            String givenName,
+            NameMatchMode match,
+            String identifier,
+            LocalDate birthDate,
+            LocalDate startDate,
+            LocalDate endDate,
+            String after,
+            int size,
+            boolean approximateTotal
+    );
+
+    /**
+     * Like {@link #searchPatientsAfter}, but hands each patient to {@code sink} as it is read
+     * from the database cursor instead of collecting the page, so large pages take constant memory.
+     * No total is computed.
+     * @param sink Receives the patients of the page in keyset order
+     * @return The page metadata (size, hasNext, nextCursor) without content
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @throws IOException if the sink fails, for example because the client went away
+     */
+    CursorPage<PatientSummaryResponse> streamPatientsAfter(
+            String familyName,
+            String givenName,
+            NameMatchMode match,
+            String identifier,
+            LocalDate birthDate,
+            LocalDate startDate,
+            LocalDate endDate,
+            String after,
+            int size,
+            ItemSink<PatientSummaryResponse> sink
+    ) throws IOException;
+
     /**
      * Get all encounters for a specific patient.
      * @param patientId The ID of the patient
@@ -82,6 +183,30 @@ public interface PatientService {
      * @throws ResourceNotFoundException if patient is not found
      */
     Page<EncounterResponse> getPatientEncounters(UUID patientId, Pageable pageable);
+
+    /**
+     * Get the encounters of a patient that overlap a time window, newest first.
+     * Encounters without an end are treated as still open.
+     * @param patientId The ID of the patient
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (inclusive)
+     * @return Overlapping encounters
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the window ends before it starts
+     */
+    List<EncounterResponse> getPatientEncounters(UUID patientId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Get encounters for a specific patient with keyset pagination, newest first.
+     * @param patientId The ID of the patient
+     * @param after Cursor returned with the previous page, or blank for the first page
+     * @param size Page size
+     * @param approximateTotal Whether to include the total number of encounters
+     * @return Slice of encounters with the cursor of the next slice
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<EncounterResponse> getPatientEncountersAfter(UUID patientId, String after, int size, boolean approximateTotal);
     
     /**
      * Get patient entity by ID (for internal use).
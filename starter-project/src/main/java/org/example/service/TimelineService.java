@@ -0,0 +1,28 @@
+package org.example.service;
+
+import org.example.dto.CursorPage;
+import org.example.dto.TimelineEntry;
+import org.example.exception.ResourceNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service interface for the merged encounter and observation timeline of a patient.
+ */
+public interface TimelineService {
+
+    /**
+     * Get a slice of a patient's encounters and observations merged newest first.
+     * Each kind is read from its own (patient_id, time, id) index range and the two cursors
+     * are merged lazily, so at most {@code limit + 1} rows of each are read.
+     * @param patientId The ID of the patient
+     * @param before Only items strictly before this time, or null for the latest
+     * @param after Cursor returned with the previous slice, or blank for the first slice
+     * @param limit Maximum number of items
+     * @return Slice of timeline items with the cursor of the next slice
+     * @throws ResourceNotFoundException if patient is not found
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<TimelineEntry> getTimeline(UUID patientId, LocalDateTime before, String after, int limit);
+}
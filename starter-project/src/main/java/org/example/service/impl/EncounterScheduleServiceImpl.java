@@ -0,0 +1,87 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.EncounterOverlapResult;
+import org.example.dto.EncounterResponse;
+import org.example.dto.EncounterSlot;
+import org.example.entity.Encounter;
+import org.example.repository.EncounterRepository;
+import org.example.repository.PatientRepository;
+import org.example.service.EncounterScheduleService;
+import org.example.util.IntervalTree;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EncounterScheduleServiceImpl implements EncounterScheduleService {
+
+    private final EncounterRepository encounterRepository;
+    private final PatientRepository patientRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EncounterOverlapResult> findOverlaps(List<EncounterSlot> slots) {
+        if (slots.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> patientIds = new HashSet<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (int i = 0; i < slots.size(); i++) {
+            EncounterSlot slot = slots.get(i);
+            if (slot.getEnd().isBefore(slot.getStart())) {
+                throw new IllegalArgumentException("Slot " + i + " ends before it starts");
+            }
+            patientIds.add(slot.getPatientId());
+            from = slot.getStart().isBefore(from) ? slot.getStart() : from;
+            to = slot.getEnd().isAfter(to) ? slot.getEnd() : to;
+        }
+        Set<UUID> knownPatients = patientRepository.findExistingIds(patientIds);
+        Map<UUID, IntervalTree<Encounter>> booked = knownPatients.isEmpty() ? Map.of()
+                : encounterRepository.findEncountersByPatientsAndDateRange(knownPatients, from, to).stream()
+                        .collect(Collectors.groupingBy(encounter -> encounter.getPatient().getId(), Collectors.collectingAndThen(
+                                Collectors.toList(),
+                                encounters -> IntervalTree.of(encounters, encounter -> epochMicros(encounter.getStart()),
+                                        encounter -> encounter.getEndTime() != null ? epochMicros(encounter.getEndTime()) : Long.MAX_VALUE))));
+        log.debug("Checking {} slots of {} patients against {} booked encounters", slots.size(), patientIds.size(),
+                booked.values().stream().mapToInt(IntervalTree::size).sum());
+
+        List<EncounterOverlapResult> results = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            EncounterSlot slot = slots.get(i);
+            EncounterOverlapResult.EncounterOverlapResultBuilder result = EncounterOverlapResult.builder()
+                    .index(i)
+                    .patientId(slot.getPatientId())
+                    .start(slot.getStart())
+                    .end(slot.getEnd());
+            if (!knownPatients.contains(slot.getPatientId())) {
+                results.add(result.error("Patient not found with id: " + slot.getPatientId()).build());
+                continue;
+            }
+            IntervalTree<Encounter> tree = booked.get(slot.getPatientId());
+            List<EncounterResponse> conflicts = tree == null ? List.of()
+                    : tree.overlapping(epochMicros(slot.getStart()), epochMicros(slot.getEnd())).stream()
+                            .map(EncounterResponse::of)
+                            .toList();
+            results.add(result.available(conflicts.isEmpty()).conflicts(conflicts).build());
+        }
+        return results;
+    }
+
+    private static long epochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+}
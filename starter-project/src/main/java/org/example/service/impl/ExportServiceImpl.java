@@ -0,0 +1,104 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.example.export.EncounterExportRow;
+import org.example.export.ExportFormat;
+import org.example.export.ObservationExportRow;
+import org.example.export.PatientExportRow;
+import org.example.repository.EncounterRepository;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.example.service.ExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the ExportService interface.
+ * The repositories stream constructor projections rather than entities, so nothing is
+ * added to the persistence context and each row can be collected once it is written.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private final PatientRepository patientRepository;
+    private final EncounterRepository encounterRepository;
+    private final ObservationRepository observationRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    public ExportServiceImpl(PatientRepository patientRepository, EncounterRepository encounterRepository,
+                             ObservationRepository observationRepository, ObjectMapper objectMapper) {
+        this.patientRepository = patientRepository;
+        this.encounterRepository = encounterRepository;
+        this.observationRepository = observationRepository;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPatients(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<PatientExportRow> rows = patientRepository.streamForExport(since)) {
+            return write("patients", rows, PatientExportRow.class, format, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEncounters(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<EncounterExportRow> rows = encounterRepository.streamForExport(since)) {
+            return write("encounters", rows, EncounterExportRow.class, format, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportObservations(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ObservationExportRow> rows = observationRepository.streamForExport(since)) {
+            return write("observations", rows, ObservationExportRow.class, format, out);
+        }
+    }
+
+    private <T> long write(String name, Stream<T> rows, Class<T> type, ExportFormat format, OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long count = 0;
+        // the caller owns the stream, for example to finish a gzip trailer after the last row
+        try (SequenceWriter writer = writerFor(type, format).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        if (format == ExportFormat.NDJSON && count > 0) {
+            // the sequence writer only separates values; NDJSON ends every line
+            out.write('\n');
+        }
+        log.info("Exported {} {} as {} in {} ms", count, name, format, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    private ObjectWriter writerFor(Class<?> type, ExportFormat format) {
+        return switch (format) {
+            case NDJSON -> objectMapper.writerFor(type).withRootValueSeparator("\n");
+            case CSV -> csvMapper.writer(csvMapper.schemaFor(type).withHeader());
+        };
+    }
+}
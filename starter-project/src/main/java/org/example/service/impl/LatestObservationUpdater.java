@@ -0,0 +1,88 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.entity.LatestObservation;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.repository.LatestObservationRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link LatestObservation} rows in step with observation writes. Called inside
+ * the transaction that wrote the observations, so the snapshot commits or rolls back
+ * with them.
+ */
+@Component
+@RequiredArgsConstructor
+class LatestObservationUpdater {
+
+    private final LatestObservationRepository latestObservationRepository;
+
+    /**
+     * Insert the snapshot of freshly persisted patients; there is nothing to compare against.
+     */
+    void recordNewPatients(Collection<Patient> patients) {
+        List<LatestObservation> rows = new ArrayList<>();
+        for (Patient patient : patients) {
+            for (Observation observation : newestPerCode(patient.collectObservations()).values()) {
+                LatestObservation row = new LatestObservation();
+                row.copyFrom(observation);
+                rows.add(row);
+            }
+        }
+        latestObservationRepository.saveAll(rows);
+    }
+
+    /**
+     * Fold observations of existing patients into their snapshots, reading the current
+     * rows of all the patients in one query.
+     */
+    void record(Collection<Observation> observations) {
+        Map<Key, Observation> newest = new HashMap<>();
+        for (Observation observation : observations) {
+            newest.merge(new Key(observation.getPatient().getId(), observation.getCode()), observation,
+                    BinaryOperator.maxBy(LatestObservation.RECENCY));
+        }
+        if (newest.isEmpty()) {
+            return;
+        }
+        Set<UUID> patientIds = newest.keySet().stream().map(Key::patientId).collect(Collectors.toSet());
+        Map<Key, LatestObservation> current = new HashMap<>();
+        latestObservationRepository.findByPatientIdIn(patientIds)
+                .forEach(row -> current.put(new Key(row.getPatientId(), row.getCode()), row));
+
+        List<LatestObservation> changed = new ArrayList<>();
+        newest.forEach((key, observation) -> {
+            LatestObservation row = current.get(key);
+            if (row == null) {
+                row = new LatestObservation();
+            } else if (!row.isOlderThan(observation)) {
+                return;
+            }
+            row.copyFrom(observation);
+            changed.add(row);
+        });
+        latestObservationRepository.saveAll(changed);
+    }
+
+    private static Map<String, Observation> newestPerCode(Collection<Observation> observations) {
+        Map<String, Observation> newest = new HashMap<>();
+        for (Observation observation : observations) {
+            newest.merge(observation.getCode(), observation, BinaryOperator.maxBy(LatestObservation.RECENCY));
+        }
+        return newest;
+    }
+
+    private record Key(UUID patientId, String code) {
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BulkImportResult;
+import org.example.dto.ObservationIngestResponse;
+import org.example.dto.ObservationRequest;
+import org.example.service.ObservationIngestService;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the ObservationIngestService interface.
+ * Records are parsed and validated on the request thread and handed to the
+ * {@link ObservationIngestWriter} queue; nothing is written to the database here.
+ */
+@Slf4j
+@Service
+public class ObservationIngestServiceImpl implements ObservationIngestService {
+
+    private final ObservationIngestWriter writer;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Counter accepted;
+    private final Counter invalid;
+    private final Counter throttled;
+
+    public ObservationIngestServiceImpl(ObservationIngestWriter writer, ObjectMapper objectMapper, Validator validator, MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.accepted = ObservationIngestWriter.outcome(meterRegistry, "accepted");
+        this.invalid = ObservationIngestWriter.outcome(meterRegistry, "invalid");
+        this.throttled = ObservationIngestWriter.outcome(meterRegistry, "throttled");
+    }
+
+    @Override
+    public ObservationIngestResponse ingest(InputStream ndjson) throws IOException {
+        long startedAt = System.nanoTime();
+        int acceptedCount = 0;
+        List<BulkImportResult> errors = new ArrayList<>();
+        Long resumeFromLine = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ObservationRequest request = parse(lineNumber, line, errors);
+                if (request == null) {
+                    continue;
+                }
+                if (!writer.offer(request)) {
+                    resumeFromLine = lineNumber;
+                    throttled.increment();
+                    break;
+                }
+                acceptedCount++;
+            }
+        }
+
+        accepted.increment(acceptedCount);
+        invalid.increment(errors.size());
+        if (resumeFromLine != null) {
+            log.warn("Observation ingest queue full after {} records, client asked to resend from line {}", acceptedCount, resumeFromLine);
+        }
+        return ObservationIngestResponse.builder()
+                .accepted(acceptedCount)
+                .rejected(errors.size())
+                .throttled(resumeFromLine != null)
+                .resumeFromLine(resumeFromLine)
+                .durationMillis((System.nanoTime() - startedAt) / 1_000_000)
+                .errors(errors)
+                .build();
+    }
+
+    private ObservationRequest parse(long lineNumber, String line, List<BulkImportResult> errors) {
+        ObservationRequest request;
+        try {
+            request = objectMapper.readValue(line, ObservationRequest.class);
+        } catch (JsonProcessingException ex) {
+            errors.add(BulkImportResult.failure(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage()));
+            return null;
+        }
+
+        Set<ConstraintViolation<ObservationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            errors.add(BulkImportResult.failure(lineNumber, null, "Validation failed: " + message));
+            return null;
+        }
+        // the column keeps microseconds; a resent record must compare equal to the stored one
+        request.setEffectiveDateTime(request.getEffectiveDateTime().truncatedTo(ChronoUnit.MICROS));
+        return request;
+    }
+}
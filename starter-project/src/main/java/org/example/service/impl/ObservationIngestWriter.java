@@ -0,0 +1,309 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ObservationIngestProperties;
+import org.example.dto.ObservationRequest;
+import org.example.entity.Encounter;
+import org.example.entity.Observation;
+import org.example.entity.Patient;
+import org.example.event.ObservationsRecordedEvent;
+import org.example.mapper.PatientGraphMapper;
+import org.example.repository.EncounterRepository;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for streamed observations. Request threads only enqueue; a single
+ * writer thread drains the queue and commits a batch whenever it holds
+ * {@code batch-size} observations or its oldest one has waited {@code flush-interval},
+ * so thousands of observations per second share a few transactions.
+ * <p>
+ * In the batch transaction, records of unknown patients or of encounters belonging to
+ * another patient are dropped. So are duplicates of a stored observation or of an
+ * earlier record with the same (patient, code, effective time), which a unique constraint
+ * backs against other writers; a record rejected by it also counts as a duplicate. The
+ * rest are inserted with JDBC batching. The latest observation snapshots and the patients' children versions are
+ * updated in the same transaction. If a batch fails, its records are retried one by one
+ * so a bad record only fails itself.
+ * <p>
+ * Queue depth, outcomes, batch sizes, commit time and ingest lag (enqueue to commit)
+ * are published as {@code observation.ingest.*} metrics.
+ */
+@Slf4j
+@Component
+class ObservationIngestWriter {
+
+    private final PatientRepository patientRepository;
+    private final EncounterRepository encounterRepository;
+    private final ObservationRepository observationRepository;
+    private final LatestObservationUpdater latestObservationUpdater;
+    private final PatientGraphMapper patientGraphMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<PendingObservation> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter duplicates;
+    private final Counter unknownPatients;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTime;
+    private final Timer lag;
+
+    ObservationIngestWriter(ObservationIngestProperties properties, PatientRepository patientRepository,
+                            EncounterRepository encounterRepository, ObservationRepository observationRepository,
+                            LatestObservationUpdater latestObservationUpdater, PatientGraphMapper patientGraphMapper,
+                            EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.patientRepository = patientRepository;
+        this.encounterRepository = encounterRepository;
+        this.observationRepository = observationRepository;
+        this.latestObservationUpdater = latestObservationUpdater;
+        this.patientGraphMapper = patientGraphMapper;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+
+        Gauge.builder("observation.ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("observation.ingest.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+        this.written = outcome(meterRegistry, "written");
+        this.duplicates = outcome(meterRegistry, "duplicate");
+        this.unknownPatients = outcome(meterRegistry, "unknown_patient");
+        this.failed = outcome(meterRegistry, "failed");
+        this.batchSizes = DistributionSummary.builder("observation.ingest.batch.size").register(meterRegistry);
+        this.commitTime = Timer.builder("observation.ingest.commit").register(meterRegistry);
+        this.lag = Timer.builder("observation.ingest.lag")
+                .description("Time from accepting an observation to committing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "observation-ingest-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("observation.ingest.records").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Queue an observation for the next batch.
+     * @return false if the queue is full
+     */
+    boolean offer(ObservationRequest request) {
+        return running && queue.offer(new PendingObservation(request, System.nanoTime()));
+    }
+
+    /**
+     * Stop accepting observations and commit the ones already queued.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("Observation ingest stopped with {} observations not committed", queue.size());
+        }
+    }
+
+    private void run() {
+        List<PendingObservation> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingObservation first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedAt() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingObservation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Observation ingest batch of {} lost", batch.size(), ex);
+                failed.increment(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingObservation> batch) {
+        batchSizes.record(batch.size());
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException ex) {
+            log.warn("Observation ingest batch of {} failed, retrying one by one: {}",
+                    batch.size(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            entityManager.clear();
+            for (PendingObservation pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(pending)));
+                } catch (DataIntegrityViolationException single) {
+                    entityManager.clear();
+                    if (violates(single, Observation.UNIQUE_PATIENT_CODE_TIME)) {
+                        // inserted by another writer since the keys were read
+                        duplicates.increment();
+                    } else {
+                        failed.increment();
+                        log.warn("Observation {} of patient {} failed: {}", pending.request().getCode(), pending.request().getPatientId(),
+                                NestedExceptionUtils.getMostSpecificCause(single).getMessage());
+                    }
+                } catch (RuntimeException single) {
+                    entityManager.clear();
+                    failed.increment();
+                    log.warn("Observation {} of patient {} failed: {}", pending.request().getCode(), pending.request().getPatientId(),
+                            NestedExceptionUtils.getMostSpecificCause(single).getMessage());
+                }
+            }
+        }
+        long committedAt = System.nanoTime();
+        commitTime.record(committedAt - startedAt, TimeUnit.NANOSECONDS);
+        batch.forEach(pending -> lag.record(committedAt - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+    }
+
+    private void write(List<PendingObservation> batch) {
+        Set<UUID> patientIds = new HashSet<>();
+        Set<UUID> encounterIds = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (PendingObservation pending : batch) {
+            ObservationRequest request = pending.request();
+            patientIds.add(request.getPatientId());
+            if (request.getEncounterId() != null) {
+                encounterIds.add(request.getEncounterId());
+            }
+            codes.add(request.getCode());
+            from = request.getEffectiveDateTime().isBefore(from) ? request.getEffectiveDateTime() : from;
+            to = request.getEffectiveDateTime().isAfter(to) ? request.getEffectiveDateTime() : to;
+        }
+
+        Set<UUID> knownPatients = patientRepository.findExistingIds(patientIds);
+        Map<UUID, UUID> encounterOwners = new HashMap<>();
+        if (!encounterIds.isEmpty()) {
+            encounterRepository.findOwners(encounterIds).forEach(owner -> encounterOwners.put(owner.getId(), owner.getPatientId()));
+        }
+        Set<Key> seen = new HashSet<>();
+        if (!knownPatients.isEmpty()) {
+            observationRepository.findKeys(knownPatients, codes, from, to)
+                    .forEach(key -> seen.add(new Key(key.getPatientId(), key.getCode(), key.getEffectiveDateTime())));
+        }
+
+        List<Observation> observations = new ArrayList<>(batch.size());
+        int duplicateCount = 0;
+        int unknownCount = 0;
+        for (PendingObservation pending : batch) {
+            ObservationRequest request = pending.request();
+            UUID encounterId = request.getEncounterId();
+            if (!knownPatients.contains(request.getPatientId())
+                    || encounterId != null && !request.getPatientId().equals(encounterOwners.get(encounterId))) {
+                unknownCount++;
+                continue;
+            }
+            if (!seen.add(new Key(request.getPatientId(), request.getCode(), request.getEffectiveDateTime()))) {
+                duplicateCount++;
+                continue;
+            }
+            observations.add(patientGraphMapper.toObservation(
+                    entityManager.getReference(Patient.class, request.getPatientId()),
+                    encounterId != null ? entityManager.getReference(Encounter.class, encounterId) : null,
+                    request));
+        }
+
+        if (!observations.isEmpty()) {
+            observations.sort(Comparator.comparing(Observation::getEffectiveDateTime));
+            observationRepository.saveAll(observations);
+            latestObservationUpdater.record(observations);
+            patientRepository.incrementChildrenVersions(observations.stream().map(observation -> observation.getPatient().getId()).distinct().toList());
+            observationRepository.flush();
+            eventPublisher.publishEvent(ObservationsRecordedEvent.of(observations));
+        }
+        entityManager.clear();
+
+        // counted once the transaction is about to commit; a rollback retries the records singly
+        int writtenCount = observations.size();
+        int duplicatesInBatch = duplicateCount;
+        int unknownInBatch = unknownCount;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                written.increment(writtenCount);
+                duplicates.increment(duplicatesInBatch);
+                unknownPatients.increment(unknownInBatch);
+            }
+        });
+    }
+
+    private static boolean violates(DataIntegrityViolationException ex, String constraintName) {
+        Throwable cause = ex;
+        while (cause != null && !(cause instanceof ConstraintViolationException)) {
+            cause = cause.getCause();
+        }
+        if (cause == null) {
+            return false;
+        }
+        ConstraintViolationException violation = (ConstraintViolationException) cause;
+        String constraint = violation.getConstraintName() != null ? violation.getConstraintName() : violation.getMessage();
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    private record PendingObservation(ObservationRequest request, long enqueuedAt) {
+    }
+
+    private record Key(UUID patientId, String code, LocalDateTime effectiveDateTime) {
+    }
+}
@@ -2,38 +2,188 @@ package org.example.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CursorPage;
 import org.example.dto.ObservationResponse;
+import org.example.dto.ObservationSeriesPoint;
+import org.example.dto.ObservationSeriesResponse;
+import org.example.dto.TimeSeriesStoreStats;
+import org.example.entity.LatestObservation;
 import org.example.entity.Observation;
 import org.example.exception.ResourceNotFoundException;
+import org.example.repository.LatestObservationRepository;
 import org.example.repository.ObservationRepository;
 import org.example.repository.PatientRepository;
 import org.example.service.ObservationService;
+import org.example.timeseries.BucketAggregator;
+import org.example.util.ItemSink;
+import org.example.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ObservationServiceImpl implements ObservationService {
 
+    private static final Duration DEFAULT_SERIES_WINDOW = Duration.ofDays(30);
+    private static final long MAX_SERIES_BUCKETS = 10_000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "effectiveDateTime", "id");
+
     private final ObservationRepository observationRepository;
     private final PatientRepository patientRepository;
+    private final LatestObservationRepository latestObservationRepository;
+    private final RecentObservationStore recentObservationStore;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ObservationResponse> getObservations(UUID patientId, String code, LocalDateTime from, LocalDateTime to, String after, int limit) {
+        log.debug("Fetching observations for patient ID: {} code={} from={} to={} after cursor {}", patientId, code, from, to, after);
+
+        Specification<Observation> specification = observationSpecification(patientId, code, from, to, after);
+        List<Observation> rows = observationRepository.findBy(specification, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(limit + 1)
+                .all());
+
+        return CursorPage.fromRows(rows, limit,
+                        observation -> new KeysetCursor(observation.getEffectiveDateTime().toString(), observation.getId()).encode())
+                .map(this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ObservationResponse> streamObservations(UUID patientId, String code, LocalDateTime from, LocalDateTime to, String after, int limit,
+                                                              ItemSink<ObservationResponse> sink) throws IOException {
+        log.debug("Streaming observations for patient ID: {} code={} from={} to={} after cursor {}", patientId, code, from, to, after);
+
+        Specification<Observation> specification = observationSpecification(patientId, code, from, to, after);
+        try (Stream<ObservationResponse> rows = observationRepository.streamResponses(specification, NEWEST_FIRST, limit + 1)) {
+            return CursorPage.streamRows(rows, limit,
+                    observation -> new KeysetCursor(observation.getEffectiveDateTime().toString(), observation.getId()).encode(), sink);
+        }
+    }
+
+    private Specification<Observation> observationSpecification(UUID patientId, String code, LocalDateTime from, LocalDateTime to, String after) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+
+        // every predicate is on a column of the (patient_id[, code], effective_date_time, id) indexes,
+        // so a slice is a bounded range scan whatever the size of the history
+        Specification<Observation> specification = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("patient").get("id"), patientId);
+        if (code != null && !code.isBlank()) {
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("code"), code.trim()));
+        }
+        if (from != null) {
+            specification = specification.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.greaterThanOrEqualTo(root.get("effectiveDateTime"), from));
+        }
+        if (to != null) {
+            specification = specification.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.lessThan(root.get("effectiveDateTime"), to));
+        }
+
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        if (cursor != null) {
+            LocalDateTime effective = cursor.sortValueAsDateTime();
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("effectiveDateTime"), effective),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("effectiveDateTime"), effective),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.getId()))));
+        }
+
+        return specification;
+    }
 
     @Override
-    public List<ObservationResponse> getObservationsByPatientId(UUID patientId) {
-        log.info("Fetching observations for patient ID: {}", patientId);
+    @Transactional(readOnly = true)
+    public ObservationSeriesResponse getObservationSeries(UUID patientId, String code, LocalDateTime from, LocalDateTime to, Duration bucket) {
+        if (code == null || code.isBlank()) {
+            throw new IllegalArgumentException("Code is required");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_SERIES_WINDOW);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).dividedBy(bucket) > MAX_SERIES_BUCKETS) {
+            throw new IllegalArgumentException("Window spans more than " + MAX_SERIES_BUCKETS + " buckets; use a wider bucket or a shorter window");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+
+        BucketAggregator aggregator = new BucketAggregator(bucket);
+        recentObservationStore.read(patientId, code.trim(), start, end, aggregator::add);
+        List<ObservationSeriesPoint> points = aggregator.finish();
+        log.debug("Downsampled {} samples of {} for patient ID: {} into {} buckets", aggregator.getSamples(), code, patientId, points.size());
 
-        patientRepository.findById(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+        return ObservationSeriesResponse.builder()
+                .patientId(patientId)
+                .code(code.trim())
+                .unit(aggregator.getUnit())
+                .from(start)
+                .to(end)
+                .bucket(bucket.toString())
+                .samples(aggregator.getSamples())
+                .points(points)
+                .build();
+    }
 
-        List<Observation> observations = observationRepository.findByPatientIdOrderByEffectiveDateTimeDesc(patientId);
+    @Override
+    @Transactional(readOnly = true)
+    public List<ObservationResponse> getLatestObservations(UUID patientId) {
+        log.debug("Fetching latest observations for patient ID: {}", patientId);
 
-        return observations.stream()
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+        return latestObservationRepository.findByPatientIdOrderByCode(patientId).stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildLatestObservations() {
+        long startedAt = System.nanoTime();
+        int removed = latestObservationRepository.deleteAllInBulk();
+        int written = latestObservationRepository.insertFromObservations();
+        log.info("Rebuilt latest observations: {} rows removed, {} written in {} ms",
+                removed, written, (System.nanoTime() - startedAt) / 1_000_000);
+        return written;
+    }
+
+    @Override
+    public TimeSeriesStoreStats getTimeSeriesStoreStats(UUID patientId, int limit) {
+        return recentObservationStore.stats(patientId, limit);
+    }
+
+    private ObservationResponse mapToResponse(LatestObservation latest) {
+        ObservationResponse response = new ObservationResponse();
+        response.setId(latest.getObservationId());
+        response.setPatientId(latest.getPatientId());
+        response.setEncounterId(latest.getEncounterId());
+        response.setCode(latest.getCode());
+        response.setValue(latest.getValue());
+        response.setValueNumeric(latest.getValueNumeric());
+        response.setUnit(latest.getUnit());
+        response.setEffectiveDateTime(latest.getEffectiveDateTime());
+        return response;
     }
 
     private ObservationResponse mapToResponse(Observation observation) {
@@ -43,6 +193,8 @@ public class ObservationServiceImpl implements ObservationService {
         response.setEncounterId(observation.getEncounter() != null ? observation.getEncounter().getId() : null);
         response.setCode(observation.getCode());
         response.setValue(observation.getValue());
+        response.setValueNumeric(observation.getValueNumeric());
+        response.setUnit(observation.getUnit());
         response.setEffectiveDateTime(observation.getEffectiveDateTime());
         return response;
     }
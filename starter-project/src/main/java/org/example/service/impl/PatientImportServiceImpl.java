@@ -0,0 +1,276 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.BulkImportProperties;
+import org.example.dto.BulkImportResponse;
+import org.example.dto.BulkImportResult;
+import org.example.dto.PatientRequest;
+import org.example.dto.PatientSummaryResponse;
+import org.example.entity.Patient;
+import org.example.event.ObservationsRecordedEvent;
+import org.example.event.PatientChangedEvent;
+import org.example.mapper.PatientGraphMapper;
+import org.example.repository.PatientRepository;
+import org.example.service.PatientImportService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the PatientImportService interface.
+ * Records are read line by line, so only one chunk of entities is held at a time.
+ * Successes are only counted and failures kept up to a limit, so the report stays small
+ * however large the input.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private final PatientRepository patientRepository;
+    private final PatientGraphMapper patientGraphMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final BulkImportProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PatientUniquenessGuard uniquenessGuard;
+    private final LatestObservationUpdater latestObservationUpdater;
+
+    @Override
+    public BulkImportResponse importPatients(InputStream ndjson) throws IOException {
+        long startedAt = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        Report report = new Report(Math.max(0, properties.getMaxReportedErrors()));
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                PendingRecord record = parse(lineNumber, line, report);
+                if (record == null) {
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+
+        report.errors.sort(Comparator.comparingLong(BulkImportResult::getLine));
+        int total = report.succeeded + report.failed;
+        long durationMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        double recordsPerSecond = total * 1000.0 / durationMillis;
+
+        log.info("Bulk import finished: {} records, {} succeeded, {} failed in {} ms ({} records/s)",
+                total, report.succeeded, report.failed, durationMillis, String.format("%.1f", recordsPerSecond));
+
+        return BulkImportResponse.builder()
+                .total(total)
+                .succeeded(report.succeeded)
+                .failed(report.failed)
+                .durationMillis(durationMillis)
+                .recordsPerSecond(recordsPerSecond)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .build();
+    }
+
+    private PendingRecord parse(long lineNumber, String line, Report report) {
+        PatientRequest request;
+        try {
+            request = objectMapper.readValue(line, PatientRequest.class);
+        } catch (JsonProcessingException ex) {
+            report.fail(BulkImportResult.failure(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage()));
+            return null;
+        }
+
+        Set<ConstraintViolation<PatientRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String errors = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.fail(BulkImportResult.failure(lineNumber, request.getIdentifier(), "Validation failed: " + errors));
+            return null;
+        }
+
+        try {
+            return new PendingRecord(lineNumber, request, patientGraphMapper.toPatientGraph(request));
+        } catch (RuntimeException ex) {
+            // a record the mapper cannot handle fails its own line, never the whole import
+            String message = ex.getMessage() != null ? ex.getMessage() : "Invalid record: " + ex.getClass().getSimpleName();
+            report.fail(BulkImportResult.failure(lineNumber, request.getIdentifier(), message));
+            return null;
+        }
+    }
+
+    private void writeChunk(List<PendingRecord> chunk, Report report) {
+        List<PendingRecord> accepted = rejectDuplicates(chunk, report);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted));
+            report.succeeded += accepted.size();
+        } catch (RuntimeException ex) {
+            log.warn("Chunk of {} records failed, retrying one by one: {}",
+                    accepted.size(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            entityManager.clear();
+            accepted.forEach(record -> report.add(insertSingle(record)));
+        }
+    }
+
+    /**
+     * Isolates the failing records of a chunk by inserting each one in its own transaction.
+     */
+    private BulkImportResult insertSingle(PendingRecord failed) {
+        PendingRecord record = new PendingRecord(failed.line(), failed.request(),
+                patientGraphMapper.toPatientGraph(failed.request()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(record)));
+            return BulkImportResult.success(record.line(), record.request().getIdentifier(), record.patient().getId());
+        } catch (DataIntegrityViolationException ex) {
+            entityManager.clear();
+            PatientRequest request = record.request();
+            RuntimeException translated = uniquenessGuard.translate(ex, request.getIdentifier(), request.getUsername(), request.getEmail());
+            return BulkImportResult.failure(record.line(), request.getIdentifier(),
+                    translated == ex ? NestedExceptionUtils.getMostSpecificCause(ex).getMessage() : translated.getMessage());
+        } catch (RuntimeException ex) {
+            entityManager.clear();
+            return BulkImportResult.failure(record.line(), record.request().getIdentifier(),
+                    NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        }
+    }
+
+    private void insert(List<PendingRecord> records) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Patient> patients = records.stream().map(PendingRecord::patient).toList();
+        patients.forEach(patient -> {
+            patient.setCreatedAt(now);
+            patient.setUpdatedAt(now);
+            uniquenessGuard.record(patient.getIdentifier(), patient.getUsername(), patient.getEmail());
+        });
+        patientRepository.saveAll(patients);
+        latestObservationUpdater.recordNewPatients(patients);
+        patientRepository.flush();
+        patients.forEach(patient -> {
+            eventPublisher.publishEvent(PatientChangedEvent.created(PatientSummaryResponse.of(patient)));
+            eventPublisher.publishEvent(ObservationsRecordedEvent.of(patient));
+        });
+        entityManager.clear();
+    }
+
+    /**
+     * Checks a whole chunk against the database with at most one query and against itself,
+     * failing every record whose identifier, username or email is already taken. The query
+     * is skipped when the uniqueness filters rule out every key in the chunk.
+     */
+    private List<PendingRecord> rejectDuplicates(List<PendingRecord> chunk, Report report) {
+        Set<String> identifiers = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        boolean mightConflict = false;
+        for (PendingRecord record : chunk) {
+            PatientRequest request = record.request();
+            identifiers.add(request.getIdentifier());
+            usernames.add(request.getUsername());
+            emails.add(request.getEmail());
+            mightConflict |= uniquenessGuard.mightBeTaken(request.getIdentifier(), request.getUsername(), request.getEmail());
+        }
+
+        Set<String> takenIdentifiers = new HashSet<>();
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        if (mightConflict) {
+            for (PatientRepository.UniqueKeys keys : uniquenessGuard.findConflicts(identifiers, usernames, emails)) {
+                takenIdentifiers.add(keys.getIdentifier());
+                takenUsernames.add(keys.getUsername());
+                takenEmails.add(keys.getEmail());
+            }
+        }
+
+        List<PendingRecord> accepted = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            PatientRequest request = record.request();
+            String error = PatientUniquenessGuard.conflictMessage(request.getIdentifier(), request.getUsername(), request.getEmail(),
+                    takenIdentifiers, takenUsernames, takenEmails);
+
+            if (error == null) {
+                takenIdentifiers.add(request.getIdentifier());
+                takenUsernames.add(request.getUsername());
+                takenEmails.add(request.getEmail());
+                accepted.add(record);
+            } else {
+                report.fail(BulkImportResult.failure(record.line(), request.getIdentifier(), error));
+            }
+        }
+        return accepted;
+    }
+
+    private record PendingRecord(long line, PatientRequest request, Patient patient) {
+    }
+
+    /**
+     * Outcome counts of an import and its first {@code maxErrors} failures.
+     */
+    private static final class Report {
+
+        private final int maxErrors;
+        private final List<BulkImportResult> errors = new ArrayList<>();
+        private int succeeded;
+        private int failed;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void add(BulkImportResult result) {
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                fail(result);
+            }
+        }
+
+        void fail(BulkImportResult failure) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(failure);
+            }
+        }
+    }
+}
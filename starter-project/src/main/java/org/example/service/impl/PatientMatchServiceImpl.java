@@ -0,0 +1,86 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.MatchingProperties;
+import org.example.dto.DuplicateReport;
+import org.example.dto.PatientMatchCandidate;
+import org.example.dto.PatientSummaryResponse;
+import org.example.event.PatientChangedEvent;
+import org.example.exception.ServiceUnavailableException;
+import org.example.matching.PatientMatchIndex;
+import org.example.repository.PatientRepository;
+import org.example.service.PatientMatchService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the PatientMatchService interface.
+ * The index is loaded once the application is ready and then follows patient writes
+ * through {@link PatientChangedEvent}s delivered after commit. Requests are already served
+ * while it loads, so lookups answer 503 until the load has finished rather than return
+ * results from a partial index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientMatchServiceImpl implements PatientMatchService {
+
+    private final PatientRepository patientRepository;
+    private final MatchingProperties properties;
+    private final PatientMatchIndex index = new PatientMatchIndex();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+        long startedAt = System.nanoTime();
+        try (Stream<PatientSummaryResponse> patients = patientRepository.streamAllSummaries()) {
+            patients.forEach(index::put);
+        }
+        ready = true;
+        log.info("Patient match index built with {} patients in {} ms", index.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.getType() == PatientChangedEvent.Type.DELETED) {
+            index.remove(event.getPatientId());
+        } else {
+            index.put(event.getPatient());
+        }
+    }
+
+    @Override
+    public List<PatientMatchCandidate> findMatches(String familyName, String givenName, LocalDate birthDate, double minScore, int limit) {
+        if (!StringUtils.hasText(familyName) && !StringUtils.hasText(givenName) && birthDate == null) {
+            throw new IllegalArgumentException("At least one of family, given or birthDate is required");
+        }
+        requireReady();
+        return index.find(familyName, givenName, birthDate, minScore, limit);
+    }
+
+    @Override
+    public DuplicateReport findDuplicates(double minScore, int limit) {
+        requireReady();
+        DuplicateReport report = index.findDuplicates(minScore, limit, properties.getMaxBlockSize());
+        log.info("Duplicate scan of {} patients: {} comparisons, {} pairs, {} blocks skipped in {} ms",
+                report.getPatientsScanned(), report.getComparisons(), report.getPairs().size(),
+                report.getSkippedBlocks(), report.getDurationMillis());
+        return report;
+    }
+
+    private void requireReady() {
+        if (!ready) {
+            throw new ServiceUnavailableException("Patient match index is still loading");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.PatientRecordProperties;
+import org.example.dto.EncounterResponse;
+import org.example.dto.ObservationResponse;
+import org.example.dto.PatientFetchPlan;
+import org.example.dto.PatientResponse;
+import org.example.exception.ServiceUnavailableException;
+import org.example.repository.EncounterRepository;
+import org.example.service.ObservationService;
+import org.example.service.PatientRecordService;
+import org.example.service.PatientService;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads the parts of a full record on a bounded pool of its own, each part in a read-only
+ * transaction on its own connection. The transactions time out shortly after the part
+ * timeout, so the statements of an abandoned part are cancelled by the driver instead of
+ * holding their connection. A part that finds the pool and its queue full is rejected rather
+ * than run on the request thread, and parts nobody will read any more, after the deadline or
+ * once the demographics failed, are cancelled so they are skipped if still queued. Outcomes are
+ * counted per part as {@code patient.record.parts{part, outcome=loaded|timeout|failed|rejected}}.
+ */
+@Slf4j
+@Service
+public class PatientRecordServiceImpl implements PatientRecordService {
+
+    private static final String DEMOGRAPHICS = "demographics";
+    private static final String ENCOUNTERS = "encounters";
+    private static final String LATEST_OBSERVATIONS = "latestObservations";
+    private static final String OBSERVATIONS = "observations";
+
+    private final PatientService patientService;
+    private final ObservationService observationService;
+    private final EncounterRepository encounterRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final long partTimeoutNanos;
+
+    public PatientRecordServiceImpl(PatientService patientService, ObservationService observationService, EncounterRepository encounterRepository,
+                                    PatientRecordProperties properties, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.patientService = patientService;
+        this.observationService = observationService;
+        this.encounterRepository = encounterRepository;
+        this.meterRegistry = meterRegistry;
+        this.partTimeoutNanos = properties.getPartTimeout().toNanos();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // whole seconds; the service methods called by a part join this transaction and inherit its deadline
+        this.readOnlyTransaction.setTimeout((int) properties.getPartTimeout().toSeconds() + 1);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, properties.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                task -> {
+                    Thread thread = new Thread(task, "patient-record-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public PatientResponse getPatientRecord(UUID id, int encounterLimit, int observationLimit) {
+        log.debug("Fetching full record of patient with ID: {}", id);
+        long deadline = System.nanoTime() + partTimeoutNanos;
+
+        CompletableFuture<PatientResponse> demographics = load(() -> patientService.getPatientById(id, PatientFetchPlan.DEMOGRAPHICS));
+        CompletableFuture<List<EncounterResponse>> encounters = load(() -> encounterRepository
+                .findByPatientIdOrderByStartDescIdDesc(id, Limit.of(encounterLimit)).stream()
+                .map(EncounterResponse::of)
+                .toList());
+        CompletableFuture<List<ObservationResponse>> latestObservations = load(() -> observationService.getLatestObservations(id));
+        CompletableFuture<List<ObservationResponse>> observations = load(() -> observationService
+                .getObservations(id, null, null, null, null, observationLimit)
+                .getContent());
+
+        PatientResponse record;
+        try {
+            record = awaitDemographics(id, demographics, deadline);
+        } catch (RuntimeException ex) {
+            // no record is returned, so the other parts need not run
+            encounters.cancel(false);
+            latestObservations.cancel(false);
+            observations.cancel(false);
+            throw ex;
+        }
+
+        // the service hands out a copy of a cached patient, so the parts can be set on it directly
+        List<String> missing = new ArrayList<>();
+        record.setEncounters(await(ENCOUNTERS, encounters, deadline, missing));
+        record.setLatestObservations(await(LATEST_OBSERVATIONS, latestObservations, deadline, missing));
+        record.setObservations(await(OBSERVATIONS, observations, deadline, missing));
+        record.setPartial(!missing.isEmpty());
+        if (!missing.isEmpty()) {
+            record.setMissingParts(missing);
+            log.warn("Returning partial record of patient {}; missing {}", id, missing);
+        }
+        return record;
+    }
+
+    /**
+     * A cancelled future is completed before its task starts, so a cancelled part still in the
+     * queue is dropped without running.
+     */
+    private <T> CompletableFuture<T> load(Supplier<T> part) {
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> part.get()), executor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private PatientResponse awaitDemographics(UUID id, CompletableFuture<PatientResponse> future, long deadline) {
+        try {
+            PatientResponse patient = future.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            count(DEMOGRAPHICS, "loaded");
+            return patient;
+        } catch (TimeoutException ex) {
+            future.cancel(false);
+            count(DEMOGRAPHICS, "timeout");
+            throw new ServiceUnavailableException("Timed out loading patient with id: " + id);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                count(DEMOGRAPHICS, "rejected");
+                throw new ServiceUnavailableException("Too many patient records are loading; try again later");
+            }
+            count(DEMOGRAPHICS, "failed");
+            // rethrow as thrown by the service, e.g. ResourceNotFoundException
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted loading patient with id: " + id);
+        }
+    }
+
+    private <T> T await(String part, CompletableFuture<T> future, long deadline, List<String> missing) {
+        try {
+            T value = future.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            count(part, "loaded");
+            return value;
+        } catch (TimeoutException ex) {
+            future.cancel(false);
+            count(part, "timeout");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                count(part, "rejected");
+            } else {
+                count(part, "failed");
+                log.warn("Loading {} failed: {}", part, NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        missing.add(part);
+        return null;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private void count(String part, String outcome) {
+        Counter.builder("patient.record.parts").tag("part", part).tag("outcome", outcome).register(meterRegistry).increment();
+    }
+}
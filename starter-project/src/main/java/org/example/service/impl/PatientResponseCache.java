@@ -0,0 +1,182 @@
+package org.example.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.CoalescingProperties;
+import org.example.config.PatientCacheProperties;
+import org.example.dto.EncounterResponse;
+import org.example.dto.ObservationResponse;
+import org.example.dto.PatientFetchPlan;
+import org.example.dto.PatientResponse;
+import org.example.event.ObservationsRecordedEvent;
+import org.example.event.PatientChangedEvent;
+import org.example.util.SingleFlight;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of patient records in front of {@code getPatientById}, bounded by
+ * weight (W-TinyLFU eviction) and time to live. A record weighs one plus one per encounter
+ * and observation it holds, so the bound follows memory rather than the number of records.
+ * Entries are keyed by patient id and fetch plan and carry the {@code Patient.version} they
+ * were read at. The cached records are never handed out: every caller gets its own copy,
+ * which it is free to modify.
+ * <p>
+ * Every write to a patient publishes a {@link PatientChangedEvent}, and every observation
+ * write an {@link ObservationsRecordedEvent}; all plans of that patient are dropped once
+ * the write commits. A load racing with the write cannot leave a stale entry behind, because invalidating a key waits for an
+ * in-flight load of the same key to finish. Hits are served without a transaction or
+ * connection. Hit, miss and eviction counts are published as {@code cache.*} metrics
+ * with {@code cache=patients}.
+ * <p>
+ * Concurrent misses of the same key, and all concurrent reads of a key while the cache
+ * is disabled, share one load through a {@link SingleFlight} ({@code coalescing.*}
+ * metrics with {@code name=patients}). A write also makes later readers start a new load
+ * rather than join one that may have read the old state.
+ */
+@Slf4j
+@Component
+class PatientResponseCache {
+
+    private static final List<PatientFetchPlan> PLANS = List.of(
+            PatientFetchPlan.DEMOGRAPHICS, PatientFetchPlan.ENCOUNTERS, PatientFetchPlan.OBSERVATIONS, PatientFetchPlan.FULL);
+
+    private final boolean enabled;
+    private final Cache<Key, PatientResponse> cache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight<Key, PatientResponse> loads;
+
+    PatientResponseCache(PatientCacheProperties properties, CoalescingProperties coalescingProperties, MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((Key key, PatientResponse patient) -> weigh(patient))
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "patients");
+        this.loads = new SingleFlight<Key, PatientResponse>(coalescingProperties.effectiveMaxInFlight()).bindTo(meterRegistry, "patients");
+        log.info("Patient cache {} (maximum weight {}, time to live {})",
+                enabled ? "enabled" : "disabled", properties.getMaximumWeight(), properties.getTimeToLive());
+    }
+
+    /**
+     * Return a copy of the cached record, or load it in a read-only transaction and cache it.
+     * Exceptions thrown by the loader (such as a missing patient) are not cached.
+     */
+    PatientResponse get(UUID id, PatientFetchPlan plan, Supplier<PatientResponse> loader) {
+        Key key = new Key(id, plan);
+        if (!enabled) {
+            // concurrent readers share the loaded instance
+            return copy(loads.load(key, () -> readOnlyTransaction.execute(status -> loader.get())));
+        }
+        // peek quietly so a miss is only recorded once, by the load that runs
+        if (cache.policy().getIfPresentQuietly(key) != null) {
+            PatientResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return copy(cached);
+            }
+        }
+        return copy(loads.load(key, () -> cache.get(key, k -> readOnlyTransaction.execute(status -> loader.get()))));
+    }
+
+    /**
+     * Return the cached records of the given ids and load the rest with one call of the
+     * loader, in a read-only transaction. Records loaded this way are not cached: unlike a
+     * per-key load, a bulk load is not ordered against invalidations of its keys.
+     * Ids the loader does not return are left out of the result.
+     */
+    Map<UUID, PatientResponse> getAll(Collection<UUID> ids, PatientFetchPlan plan,
+                                      Function<Set<UUID>, Map<UUID, PatientResponse>> loader) {
+        Map<UUID, PatientResponse> result = new HashMap<>();
+        Set<UUID> missing = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            PatientResponse cached = enabled ? cache.getIfPresent(new Key(id, plan)) : null;
+            if (cached != null) {
+                result.put(id, copy(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(readOnlyTransaction.execute(status -> loader.apply(missing)));
+        }
+        return result;
+    }
+
+    void invalidate(UUID id) {
+        List<Key> keys = PLANS.stream().map(plan -> new Key(id, plan)).toList();
+        keys.forEach(loads::forget);
+        cache.invalidateAll(keys);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        invalidate(event.getPatientId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onObservationsRecorded(ObservationsRecordedEvent event) {
+        event.getPatientIds().forEach(this::invalidate);
+    }
+
+    private static int weigh(PatientResponse patient) {
+        long weight = 1 + size(patient.getObservations()) + size(patient.getLatestObservations());
+        if (patient.getEncounters() != null) {
+            for (EncounterResponse encounter : patient.getEncounters()) {
+                weight += 1 + size(encounter.getObservations());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Copy of a record down to its observations; the values inside are immutable.
+     */
+    private static PatientResponse copy(PatientResponse patient) {
+        if (patient == null) {
+            return null;
+        }
+        return patient.toBuilder()
+                .encounters(patient.getEncounters() == null ? null : patient.getEncounters().stream()
+                        .map(encounter -> encounter.toBuilder().observations(copyObservations(encounter.getObservations())).build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .observations(copyObservations(patient.getObservations()))
+                .latestObservations(copyObservations(patient.getLatestObservations()))
+                .missingParts(patient.getMissingParts() == null ? null : new ArrayList<>(patient.getMissingParts()))
+                .build();
+    }
+
+    private static List<ObservationResponse> copyObservations(List<ObservationResponse> observations) {
+        return observations == null ? null : observations.stream()
+                .map(observation -> observation.toBuilder().build())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private record Key(UUID id, PatientFetchPlan plan) {
+    }
+}
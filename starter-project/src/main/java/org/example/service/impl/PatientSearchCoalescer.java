@@ -0,0 +1,47 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.CoalescingProperties;
+import org.example.event.PatientChangedEvent;
+import org.example.util.SingleFlight;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical patient searches (same filters, page or cursor) share one
+ * read-only transaction and its result. Callers that join a running search never open a
+ * transaction or take a connection. Nothing outlives the search; a patient write makes
+ * later searches start afresh instead of joining one that may have missed it. Published
+ * as {@code coalescing.*} metrics with {@code name=patient-searches}.
+ */
+@Component
+class PatientSearchCoalescer {
+
+    private final SingleFlight<Object, Object> searches;
+    private final TransactionTemplate readOnlyTransaction;
+
+    PatientSearchCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.searches = new SingleFlight<>(properties.effectiveMaxInFlight()).bindTo(meterRegistry, "patient-searches");
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Run the search in a read-only transaction, or wait for the identical one already running.
+     * @param query Value object holding every input of the search; its type should identify the kind of search
+     */
+    @SuppressWarnings("unchecked")
+    <T> T load(Object query, Supplier<T> search) {
+        // the query type determines the result type, so results of other types never share a key
+        return (T) searches.load(query, () -> readOnlyTransaction.execute(status -> search.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        searches.forgetAll();
+    }
+}
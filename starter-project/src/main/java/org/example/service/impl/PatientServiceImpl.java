@@ -1,32 +1,58 @@
 package org.example.service.impl;
 
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CursorPage;
 import org.example.dto.EncounterResponse;
 import org.example.dto.ObservationResponse;
+import org.example.dto.PatientBatchEntry;
+import org.example.dto.PatientFetchPlan;
 import org.example.dto.PatientRequest;
 import org.example.dto.PatientResponse;
+import org.example.dto.PatientSummaryResponse;
+import org.example.dto.PatientVersion;
 import org.example.entity.Observation;
+import org.example.event.ObservationsRecordedEvent;
+import org.example.event.PatientChangedEvent;
+import org.example.exception.PreconditionFailedException;
 import org.example.exception.ResourceNotFoundException;
-import org.example.mapper.PatientMapper;
+import org.example.mapper.PatientGraphMapper;
 import org.example.entity.Encounter;
 import org.example.entity.Patient;
 import org.example.repository.EncounterRepository;
+import org.example.repository.LatestObservationRepository;
 import org.example.repository.ObservationRepository;
 import org.example.repository.PatientRepository;
 import org.example.service.PatientService;
+import org.example.specification.NameMatchMode;
+import org.example.specification.PatientSpecifications;
+import org.example.util.ItemSink;
+import org.example.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the PatientService interface.
@@ -36,12 +62,26 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
+    private static final Sort BY_FAMILY_NAME = Sort.by("familyName", "id");
+
     private final PatientRepository patientRepository;
     private final EncounterRepository encounterRepository;
-    private final PatientMapper patientMapper;
+    private final PatientGraphMapper patientGraphMapper;
     private final ObservationRepository observationRepository;
-
-    private PatientResponse convertToPatientResponse(Patient patient) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final PatientUniquenessGuard uniquenessGuard;
+    private final PatientResponseCache patientResponseCache;
+    private final PatientSearchCoalescer searchCoalescer;
+    private final LatestObservationUpdater latestObservationUpdater;
+    private final LatestObservationRepository latestObservationRepository;
+
+    /**
+     * Maps a patient and the requested child collections. Encounters come from the
+     * patient's collection (one query, or none when fetched with the entity graph) and
+     * encounter observations are grouped from the patient's observation list instead
+     * of initializing each encounter's collection.
+     */
+    private PatientResponse convertToPatientResponse(Patient patient, PatientFetchPlan plan, List<Observation> observations) {
         if (patient == null) {
             return null;
         }
@@ -57,8 +97,33 @@ public class PatientServiceImpl implements PatientService {
         response.setGender(patient.getGender());
         response.setCreatedAt(patient.getCreatedAt());
         response.setUpdatedAt(patient.getUpdatedAt());
+        response.setVersion(patient.getVersion());
+        response.setChildrenVersion(patient.getChildrenVersion());
+
+        Map<UUID, List<ObservationResponse>> observationsByEncounter = new HashMap<>();
+        if (plan.isObservations()) {
+            List<ObservationResponse> patientObservations = observations.stream().map(obs -> {
+                ObservationResponse or = new ObservationResponse();
+                or.setId(obs.getId());
+                or.setPatientId(patient.getId());
+                or.setEncounterId(obs.getEncounter() != null ? obs.getEncounter().getId() : null);
+                or.setCode(obs.getCode());
+                or.setValue(obs.getValue());
+                or.setValueNumeric(obs.getValueNumeric());
+                or.setUnit(obs.getUnit());
+                or.setEffectiveDateTime(obs.getEffectiveDateTime());
+                return or;
+            }).toList();
 
-        if (patient.getEncounters() != null) {
+            for (ObservationResponse or : patientObservations) {
+                if (or.getEncounterId() != null) {
+                    observationsByEncounter.computeIfAbsent(or.getEncounterId(), key -> new ArrayList<>()).add(or);
+                }
+            }
+            response.setObservations(patientObservations);
+        }
+
+        if (plan.isEncounters() && patient.getEncounters() != null) {
             List<EncounterResponse> encounterResponses = patient.getEncounters().stream().map(encounter -> {
                 EncounterResponse er = new EncounterResponse();
                 er.setId(encounter.getId());
@@ -66,165 +131,134 @@ public class PatientServiceImpl implements PatientService {
                 er.setStart(encounter.getStart());
                 er.setEndTime(encounter.getEndTime());
                 er.setEncounterClass(String.valueOf(encounter.getEncounterClass()));
-
-                if (encounter.getObservations() != null) {
-                    List<ObservationResponse> observationResponses = encounter.getObservations().stream().map(obs -> {
-                        ObservationResponse or = new ObservationResponse();
-                        or.setId(obs.getId());
-                        or.setPatientId(patient.getId());
-                        or.setEncounterId(encounter.getId());
-                        or.setCode(obs.getCode());
-                        or.setValue(obs.getValue());
-                        or.setEffectiveDateTime(obs.getEffectiveDateTime());
-                        return or;
-                    }).toList();
-
-                    er.setObservations(observationResponses);
+                if (plan.isObservations()) {
+                    er.setObservations(observationsByEncounter.getOrDefault(encounter.getId(), List.of()));
                 }
-
                 return er;
             }).toList();
 
             response.setEncounters(encounterResponses);
         }
-
-        if (patient.getObservations() != null) {
-            List<ObservationResponse> patientObservations = patient.getObservations().stream().map(obs -> {
-                ObservationResponse or = new ObservationResponse();
-                or.setId(obs.getId());
-                or.setPatientId(patient.getId());
-                or.setEncounterId(obs.getEncounter() != null ? obs.getEncounter().getId() : null);
-                or.setCode(obs.getCode());
-                or.setValue(obs.getValue());
-                or.setEffectiveDateTime(obs.getEffectiveDateTime());
-                return or;
-            }).toList();
-
-            response.setObservations(patientObservations);
-        }
         return response;
     }
 
+    private List<Observation> loadObservations(UUID patientId, PatientFetchPlan plan) {
+        return plan.isObservations()
+                ? observationRepository.findByPatientIdOrderByEffectiveDateTimeDesc(patientId)
+                : List.of();
+    }
 
     @Override
-    @Transactional(readOnly = true)
-    public PatientResponse getPatientById(UUID id) {
-        log.debug("Fetching patient with ID: {}", id);
-        Patient patient = patientRepository.findById(id)
+    public PatientVersion getPatientVersion(UUID id) {
+        return patientRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
-
-        return convertToPatientResponse(patient);
     }
 
+    @Override
+    public PatientResponse getPatientById(UUID id) {
+        return getPatientById(id, PatientFetchPlan.FULL);
+    }
 
-    private void validateUniqueFields(PatientRequest request) {
-        if (patientRepository.existsByIdentifier(request.getIdentifier())) {
-            throw new IllegalArgumentException(
-                    "Patient with identifier '" + request.getIdentifier() + "' already exists"
-            );
-        }
+    /**
+     * Served from the patient cache; only a miss opens a (read-only) transaction.
+     */
+    @Override
+    public PatientResponse getPatientById(UUID id, PatientFetchPlan plan) {
+        log.debug("Fetching patient with ID: {} ({})", id, plan);
+        return patientResponseCache.get(id, plan, () -> {
+            Patient patient = (plan.isEncounters() ? patientRepository.findWithEncountersById(id) : patientRepository.findById(id))
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
+            return convertToPatientResponse(patient, plan, loadObservations(id, plan));
+        });
+    }
 
-        if (patientRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException(
-                    "Patient with username '" + request.getUsername() + "' already exists"
-            );
-        }
+    /**
+     * Cached records are served as they are; the misses are loaded together and not cached.
+     */
+    @Override
+    public Map<UUID, PatientBatchEntry> getPatientsByIds(List<UUID> ids, PatientFetchPlan plan) {
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        log.debug("Fetching {} patients ({})", distinctIds.size(), plan);
+        Map<UUID, PatientResponse> found = patientResponseCache.getAll(distinctIds, plan, missing -> {
+            List<Patient> patients = plan.isEncounters()
+                    ? patientRepository.findWithEncountersByIdIn(missing)
+                    : patientRepository.findByIdIn(missing);
+            Map<UUID, List<Observation>> observations = plan.isObservations() && !patients.isEmpty()
+                    ? observationRepository.findByPatientIdInOrderByEffectiveDateTimeDesc(patients.stream().map(Patient::getId).toList())
+                            .stream().collect(Collectors.groupingBy(obs -> obs.getPatient().getId()))
+                    : Map.of();
+            Map<UUID, PatientResponse> loaded = new HashMap<>();
+            for (Patient patient : patients) {
+                loaded.put(patient.getId(), convertToPatientResponse(patient, plan, observations.getOrDefault(patient.getId(), List.of())));
+            }
+            return loaded;
+        });
 
-        if (patientRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException(
-                    "Patient with email '" + request.getEmail() + "' already exists"
-            );
-        }
+        Map<UUID, PatientBatchEntry> result = new LinkedHashMap<>();
+        distinctIds.forEach(id -> result.put(id, PatientBatchEntry.of(found.get(id))));
+        return result;
     }
 
+
     @Override
     @Transactional
     public PatientResponse createPatient(PatientRequest request) {
         log.info("Creating new patient with identifier: {}", request.getIdentifier());
 
-        validateUniqueFields(request);
+        uniquenessGuard.checkAvailable(request.getIdentifier(), request.getUsername(), request.getEmail(), null);
 
-        Patient patient = new Patient();
-        patient.setIdentifier(request.getIdentifier());
-        patient.setUsername(request.getUsername());
-        patient.setEmail(request.getEmail());
-        patient.setGender(request.getGender());
+        Patient patient = patientGraphMapper.toPatientGraph(request);
         patient.setCreatedAt(LocalDateTime.now());
         patient.setUpdatedAt(LocalDateTime.now());
-        patient.setGivenName(request.getGivenName());
-        patient.setFamilyName(request.getFamilyName());
-        patient.setBirthDate(request.getBirthDate());
-
-        patient = patientRepository.saveAndFlush(patient);
 
-        if (patient.getEncounters() == null) {
-            patient.setEncounters(new ArrayList<>());
+        // Encounters and observations are persisted through the cascades and
+        // written in JDBC batches by this single flush.
+        uniquenessGuard.record(request.getIdentifier(), request.getUsername(), request.getEmail());
+        try {
+            patient = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException ex) {
+            throw uniquenessGuard.translate(ex, request.getIdentifier(), request.getUsername(), request.getEmail());
         }
-        if (patient.getObservations() == null) {
-            patient.setObservations(new ArrayList<>());
-        }
-
-        if (request.getEncounters() != null) {
-            for (PatientRequest.EncounterRequest encReq : request.getEncounters()) {
-                Encounter encounter = new Encounter();
-                encounter.setPatient(patient);
-                encounter.setStart(encReq.getStart());
-                encounter.setEndTime(encReq.getEndTime());
-                encounter.setEncounterClass(Encounter.EncounterClass.valueOf(encReq.getEncounterClass().toUpperCase()));
+        latestObservationUpdater.recordNewPatients(List.of(patient));
 
-                if (encounter.getObservations() == null) {
-                    encounter.setObservations(new ArrayList<>());
-                }
-
-                encounter = encounterRepository.saveAndFlush(encounter);
-                if (encReq.getObservations() != null) {
-                    for (PatientRequest.ObservationRequest obsReq : encReq.getObservations()) {
-                        Observation obs = new Observation();
-                        obs.setPatient(patient);
-                        obs.setEncounter(encounter);
-                        obs.setCode(obsReq.getCode());
-                        obs.setValue(obsReq.getValue());
-                        obs.setEffectiveDateTime(obsReq.getEffectiveDateTime());
-                        obs = observationRepository.saveAndFlush(obs);
-                        encounter.getObservations().add(obs);
-                    }
-                }
-                patient.getEncounters().add(encounter);
-            }
-        }
-
-        if (request.getObservations() != null) {
-            for (PatientRequest.ObservationRequest obsReq : request.getObservations()) {
-                Observation obs = new Observation();
-                obs.setPatient(patient);
-                obs.setCode(obsReq.getCode());
-                obs.setValue(obsReq.getValue());
-                obs.setEffectiveDateTime(obsReq.getEffectiveDateTime());
-                obs = observationRepository.saveAndFlush(obs);
-                patient.getObservations().add(obs);
-            }
-        }
+        List<Observation> observations = new ArrayList<>(patient.getObservations());
+        patient.getEncounters().forEach(encounter -> observations.addAll(encounter.getObservations()));
+        observations.sort(Comparator.comparing(Observation::getEffectiveDateTime).reversed());
 
+        eventPublisher.publishEvent(PatientChangedEvent.created(PatientSummaryResponse.of(patient)));
+        eventPublisher.publishEvent(ObservationsRecordedEvent.of(observations));
         log.info("Created patient with ID: {}", patient.getId());
-        return convertToPatientResponse(patient);
+        return convertToPatientResponse(patient, PatientFetchPlan.FULL, observations);
     }
 
 
     @Override
     @Transactional
     public PatientResponse updatePatient(UUID id, PatientRequest request) {
+        return updatePatient(id, request, null);
+    }
+
+    @Override
+    @Transactional
+    public PatientResponse updatePatient(UUID id, PatientRequest request, Set<Long> expectedVersions) {
         log.info("Updating patient with ID: {}", id);
         
         Patient existingPatient = patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
+
+        if (expectedVersions != null && !expectedVersions.contains(existingPatient.getVersion())) {
+            throw new PreconditionFailedException("Patient " + id + " has been modified; current version is " + existingPatient.getVersion());
+        }
         
         if(request != null) {
-            if (request.getIdentifier() != null && !request.getIdentifier().isBlank()) {
-                if (!existingPatient.getIdentifier().equals(request.getIdentifier()) &&
-                        patientRepository.existsByIdentifier(request.getIdentifier())) {
-                    throw new IllegalArgumentException("Patient with identifier " + request.getIdentifier() + " already exists");
-                }
-                existingPatient.setIdentifier(request.getIdentifier());
+            String identifier = changed(request.getIdentifier(), existingPatient.getIdentifier());
+            String username = changed(request.getUsername(), existingPatient.getUsername());
+            String email = changed(request.getEmail(), existingPatient.getEmail());
+            uniquenessGuard.checkAvailable(identifier, username, email, id);
+            uniquenessGuard.record(identifier, username, email);
+
+            if (identifier != null) {
+                existingPatient.setIdentifier(identifier);
             }
 
             if (request.getGivenName() != null && !request.getGivenName().isBlank()) {
@@ -239,21 +273,40 @@ public class PatientServiceImpl implements PatientService {
                 existingPatient.setBirthDate(request.getBirthDate());
             }
 
-            if (request.getUsername() != null && !request.getUsername().isBlank()) {
-                existingPatient.setUsername(request.getUsername());
+            if (username != null) {
+                existingPatient.setUsername(username);
             }
 
-            if (request.getEmail() != null && !request.getEmail().isBlank()) {
-                existingPatient.setEmail(request.getEmail());
+            if (email != null) {
+                existingPatient.setEmail(email);
             }
 
             if (request.getGender() != null) {
                 existingPatient.setGender(request.getGender());
             }
         }
-        Patient updatedPatient = patientRepository.save(existingPatient);
+        Patient updatedPatient;
+        try {
+            updatedPatient = patientRepository.saveAndFlush(existingPatient);
+        } catch (DataIntegrityViolationException ex) {
+            throw uniquenessGuard.translate(ex, existingPatient.getIdentifier(), existingPatient.getUsername(), existingPatient.getEmail());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            if (expectedVersions != null) {
+                throw new PreconditionFailedException("Patient " + id + " was modified concurrently");
+            }
+            throw ex;
+        }
+        eventPublisher.publishEvent(PatientChangedEvent.updated(PatientSummaryResponse.of(updatedPatient)));
         log.info("Updated patient with ID: {}", id);
-        return convertToPatientResponse(updatedPatient);
+        return convertToPatientResponse(updatedPatient, PatientFetchPlan.FULL,
+                loadObservations(id, PatientFetchPlan.FULL));
+    }
+
+    /**
+     * The requested value of a unique field if it differs from the current one, otherwise null.
+     */
+    private static String changed(String requested, String current) {
+        return requested != null && !requested.isBlank() && !requested.equals(current) ? requested : null;
     }
 
     @Override
@@ -265,49 +318,90 @@ public class PatientServiceImpl implements PatientService {
             throw new ResourceNotFoundException("Patient not found with id: " + id);
         }
         
+        latestObservationRepository.deleteByPatientId(id);
         patientRepository.deleteById(id);
+        eventPublisher.publishEvent(PatientChangedEvent.deleted(id));
         log.info("Deleted patient with ID: {}", id);
     }
 
+    /**
+     * Concurrent identical searches share one read-only transaction.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public Page<PatientResponse> searchPatients(String familyName, String givenName, String identifier, LocalDate birthDate, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+    public Page<PatientSummaryResponse> searchPatients(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate, LocalDate startDate, LocalDate endDate, Pageable pageable) {
         
-        log.debug("Searching patients with filters - familyName: {}, givenName: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}",
-                familyName, givenName, identifier, birthDate, startDate, endDate);
+        log.debug("Searching patients with filters - familyName: {}, givenName: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}",
+                familyName, givenName, match, identifier, birthDate, startDate, endDate);
         
-        return patientRepository.findAll((root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            if (StringUtils.hasText(familyName)) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("familyName")),
-                    "%" + familyName.toLowerCase() + "%"
-                ));
-            }
-            
-            if (StringUtils.hasText(givenName)) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("givenName")),
-                    "%" + givenName.toLowerCase() + "%"
-                ));
-            }
-            
-            if (StringUtils.hasText(identifier)) {
-                predicates.add(criteriaBuilder.equal(root.get("identifier"), identifier));
-            }
-            
-            if (birthDate != null) {
-                predicates.add(criteriaBuilder.equal(root.get("birthDate"), birthDate));
-            } else if (startDate != null || endDate != null) {
-                if (startDate != null) {
-                    predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("birthDate"), startDate));
-                }
-                if (endDate != null) {
-                    predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("birthDate"), endDate));
-                }
-            }
-            
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        }, pageable).map(patientMapper::toResponse);
+        return searchCoalescer.load(new PageQuery(familyName, givenName, match, identifier, birthDate, startDate, endDate, pageable),
+                () -> patientRepository.findSummaries(
+                        searchSpecification(familyName, givenName, match, identifier, birthDate, startDate, endDate), pageable));
+    }
+
+    /**
+     * Concurrent identical searches share one read-only transaction.
+     */
+    @Override
+    public CursorPage<PatientSummaryResponse> searchPatientsAfter(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate, LocalDate startDate, LocalDate endDate,
+                                                                  String after, int size, boolean approximateTotal) {
+        log.debug("Searching patients after cursor {} - familyName: {}, givenName: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}",
+                after, familyName, givenName, match, identifier, birthDate, startDate, endDate);
+
+        return searchCoalescer.load(new CursorQuery(familyName, givenName, match, identifier, birthDate, startDate, endDate, after, size, approximateTotal),
+                () -> findPatientsAfter(familyName, givenName, match, identifier, birthDate, startDate, endDate, after, size, approximateTotal));
+    }
+
+    private CursorPage<PatientSummaryResponse> findPatientsAfter(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate,
+                                                                 LocalDate startDate, LocalDate endDate, String after, int size, boolean approximateTotal) {
+        Specification<Patient> filters = searchSpecification(familyName, givenName, match, identifier, birthDate, startDate, endDate);
+        List<PatientSummaryResponse> rows = patientRepository.findSummaries(afterCursor(filters, after), BY_FAMILY_NAME, size + 1);
+        CursorPage<PatientSummaryResponse> page = CursorPage.fromRows(rows, size, PatientServiceImpl::familyNameCursor);
+
+        if (approximateTotal) {
+            boolean filtered = StringUtils.hasText(familyName) || StringUtils.hasText(givenName) || StringUtils.hasText(identifier)
+                    || birthDate != null || startDate != null || endDate != null;
+            page.setApproximateTotal(filtered ? patientRepository.count(filters) : patientRepository.approximateCount());
+        }
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PatientSummaryResponse> streamPatientsAfter(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate, LocalDate startDate, LocalDate endDate,
+                                                                  String after, int size, ItemSink<PatientSummaryResponse> sink) throws IOException {
+        log.debug("Streaming patients after cursor {} - familyName: {}, givenName: {}, match: {}, identifier: {}, birthDate: {}, startDate: {}, endDate: {}",
+                after, familyName, givenName, match, identifier, birthDate, startDate, endDate);
+
+        Specification<Patient> filters = searchSpecification(familyName, givenName, match, identifier, birthDate, startDate, endDate);
+        try (Stream<PatientSummaryResponse> rows = patientRepository.streamSummaries(afterCursor(filters, after), BY_FAMILY_NAME, size + 1)) {
+            return CursorPage.streamRows(rows, size, PatientServiceImpl::familyNameCursor, sink);
+        }
+    }
+
+    private static Specification<Patient> afterCursor(Specification<Patient> filters, String after) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        return cursor == null ? filters : filters.and(
+                (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(root.get("familyName"), cursor.getSortValue()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("familyName"), cursor.getSortValue()),
+                                criteriaBuilder.greaterThan(root.get("id"), cursor.getId()))));
+    }
+
+    private static String familyNameCursor(PatientSummaryResponse patient) {
+        return new KeysetCursor(patient.getFamilyName(), patient.getId()).encode();
+    }
+
+    private Specification<Patient> searchSpecification(String familyName, String givenName, NameMatchMode match, String identifier,
+                                                        LocalDate birthDate, LocalDate startDate, LocalDate endDate) {
+        return PatientSpecifications.withSpecifications(
+                PatientSpecifications.hasFamilyName(familyName, match),
+                PatientSpecifications.hasGivenName(givenName, match),
+                PatientSpecifications.hasIdentifier(identifier),
+                birthDate != null
+                        ? PatientSpecifications.hasBirthDate(birthDate)
+                        : PatientSpecifications.hasBirthDateBetween(startDate, endDate)
+        );
     }
 
     public static EncounterResponse convertToEncounterResponse(Encounter encounter) {
@@ -332,6 +426,8 @@ public class PatientServiceImpl implements PatientService {
                                         .encounterId(obs.getEncounter() != null ? obs.getEncounter().getId() : null)
                                         .code(obs.getCode())
                                         .value(obs.getValue())
+                                        .valueNumeric(obs.getValueNumeric())
+                                        .unit(obs.getUnit())
                                         .effectiveDateTime(obs.getEffectiveDateTime())
                                         .build())
                                 .toList()
@@ -353,6 +449,54 @@ public class PatientServiceImpl implements PatientService {
                 .map(this::toEncounterResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EncounterResponse> getPatientEncounters(UUID patientId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Fetching encounters for patient ID: {} overlapping [{}, {}]", patientId, from, to);
+
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+
+        return encounterRepository.findEncountersByPatientAndDateRange(patientId, from, to).stream()
+                .map(this::toEncounterResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EncounterResponse> getPatientEncountersAfter(UUID patientId, String after, int size, boolean approximateTotal) {
+        log.debug("Fetching encounters for patient ID: {} after cursor {}", patientId, after);
+
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Specification<Encounter> specification = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("patient").get("id"), patientId);
+        if (cursor != null) {
+            LocalDateTime start = cursor.sortValueAsDateTime();
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("start"), start),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("start"), start),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.getId()))));
+        }
+
+        List<Encounter> rows = encounterRepository.findBy(specification, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "start", "id"))
+                .limit(size + 1)
+                .all());
+
+        return CursorPage.fromRows(rows, size, encounter -> new KeysetCursor(encounter.getStart().toString(), encounter.getId()).encode())
+                .map(this::toEncounterResponse)
+                .withApproximateTotal(approximateTotal ? encounterRepository.countByPatientId(patientId) : null);
+    }
+
     private EncounterResponse toEncounterResponse(Encounter encounter) {
         EncounterResponse response = new EncounterResponse();
         response.setId(encounter.getId());
@@ -370,6 +514,8 @@ public class PatientServiceImpl implements PatientService {
                         o.setEncounterId(obs.getEncounter() != null ? obs.getEncounter().getId() : null);
                         o.setCode(obs.getCode());
                         o.setValue(obs.getValue());
+                        o.setValueNumeric(obs.getValueNumeric());
+                        o.setUnit(obs.getUnit());
                         o.setEffectiveDateTime(obs.getEffectiveDateTime());
                         return o;
                     }).toList()
@@ -393,4 +539,12 @@ public class PatientServiceImpl implements PatientService {
         return patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
     }
+
+    private record PageQuery(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate,
+                             LocalDate startDate, LocalDate endDate, Pageable pageable) {
+    }
+
+    private record CursorQuery(String familyName, String givenName, NameMatchMode match, String identifier, LocalDate birthDate,
+                               LocalDate startDate, LocalDate endDate, String after, int size, boolean approximateTotal) {
+    }
 }
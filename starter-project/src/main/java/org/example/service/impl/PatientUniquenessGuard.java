@@ -0,0 +1,168 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.UniquenessProperties;
+import org.example.dto.PatientSummaryResponse;
+import org.example.entity.Observation;
+import org.example.repository.PatientRepository;
+import org.example.util.BloomFilter;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Screens patient identifiers, usernames and emails for uniqueness with Bloom filters.
+ * <p>
+ * A value the filters have never seen is definitely free and needs no query. Anything
+ * else - a taken value, a false positive, or a value freed by a delete or rename, since
+ * Bloom filters cannot forget - is settled with a single combined query. The unique
+ * constraints remain the final word; {@link #translate} turns their violations into the
+ * same error as the pre-check. Until the filters are loaded every check goes to the database.
+ */
+@Slf4j
+@Component
+class PatientUniquenessGuard {
+
+    private final PatientRepository patientRepository;
+    private final BloomFilter identifiers;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private volatile boolean loaded;
+
+    PatientUniquenessGuard(PatientRepository patientRepository, UniquenessProperties properties) {
+        this.patientRepository = patientRepository;
+        this.identifiers = BloomFilter.create(properties.getExpectedPatients(), properties.getFalsePositiveRate());
+        this.usernames = BloomFilter.create(properties.getExpectedPatients(), properties.getFalsePositiveRate());
+        this.emails = BloomFilter.create(properties.getExpectedPatients(), properties.getFalsePositiveRate());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long startedAt = System.nanoTime();
+        try (Stream<PatientSummaryResponse> patients = patientRepository.streamAllSummaries()) {
+            patients.forEach(patient -> record(patient.getIdentifier(), patient.getUsername(), patient.getEmail()));
+        }
+        loaded = true;
+        log.info("Uniqueness filters loaded with {} patients in {} ms ({} bits each, expected false positive rate {})",
+                identifiers.insertions(), (System.nanoTime() - startedAt) / 1_000_000, identifiers.bitSize(),
+                String.format("%.4f", identifiers.expectedFalsePositiveRate()));
+    }
+
+    /**
+     * Add the keys of a patient being written. Called before commit, so a rolled back
+     * write only leaves a harmless false positive behind.
+     */
+    void record(String identifier, String username, String email) {
+        if (identifier != null) {
+            identifiers.put(identifier);
+        }
+        if (username != null) {
+            usernames.put(username);
+        }
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+
+    /**
+     * Ensure no other patient holds any of the given values; null values are not checked.
+     * @param excludeId Patient allowed to hold the values (the one being updated), or null
+     * @throws IllegalArgumentException naming the first value that is taken
+     */
+    void checkAvailable(String identifier, String username, String email, UUID excludeId) {
+        if (!mightBeTaken(identifier, identifiers) && !mightBeTaken(username, usernames) && !mightBeTaken(email, emails)) {
+            return;
+        }
+
+        Set<String> identifierTaken = new HashSet<>();
+        Set<String> usernameTaken = new HashSet<>();
+        Set<String> emailTaken = new HashSet<>();
+        for (PatientRepository.UniqueKeys keys : findConflicts(List.of(nullToEmpty(identifier)), List.of(nullToEmpty(username)), List.of(nullToEmpty(email)))) {
+            if (!keys.getId().equals(excludeId)) {
+                identifierTaken.add(keys.getIdentifier());
+                usernameTaken.add(keys.getUsername());
+                emailTaken.add(keys.getEmail());
+            }
+        }
+        String error = conflictMessage(identifier, username, email, identifierTaken, usernameTaken, emailTaken);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Whether the filters admit the value may already be in use.
+     */
+    boolean mightBeTaken(String identifier, String username, String email) {
+        return mightBeTaken(identifier, identifiers) || mightBeTaken(username, usernames) || mightBeTaken(email, emails);
+    }
+
+    List<PatientRepository.UniqueKeys> findConflicts(Collection<String> identifierValues, Collection<String> usernameValues, Collection<String> emailValues) {
+        return patientRepository.findUniqueKeyConflicts(identifierValues, usernameValues, emailValues);
+    }
+
+    /**
+     * Message for the first of the values found in the taken sets, or null if none is taken.
+     */
+    static String conflictMessage(String identifier, String username, String email,
+                                  Set<String> identifierTaken, Set<String> usernameTaken, Set<String> emailTaken) {
+        if (identifier != null && identifierTaken.contains(identifier)) {
+            return "Patient with identifier '" + identifier + "' already exists";
+        }
+        if (username != null && usernameTaken.contains(username)) {
+            return "Patient with username '" + username + "' already exists";
+        }
+        if (email != null && emailTaken.contains(email)) {
+            return "Patient with email '" + email + "' already exists";
+        }
+        return null;
+    }
+
+    /**
+     * Map a unique constraint violation raised by a concurrent insert to the error the
+     * pre-check would have given. Other integrity violations are returned unchanged.
+     */
+    RuntimeException translate(DataIntegrityViolationException ex, String identifier, String username, String email) {
+        Throwable cause = ex;
+        while (cause != null && !(cause instanceof ConstraintViolationException)) {
+            cause = cause.getCause();
+        }
+        if (cause == null) {
+            return ex;
+        }
+        ConstraintViolationException violation = (ConstraintViolationException) cause;
+        String constraint = (violation.getConstraintName() != null ? violation.getConstraintName() : violation.getMessage())
+                .toLowerCase(Locale.ROOT);
+        String error = null;
+        if (constraint.contains("patient_identifier")) {
+            error = "Patient with identifier '" + identifier + "' already exists";
+        } else if (constraint.contains("patient_username")) {
+            error = "Patient with username '" + username + "' already exists";
+        } else if (constraint.contains("patient_email")) {
+            error = "Patient with email '" + email + "' already exists";
+        } else if (constraint.contains(Observation.UNIQUE_PATIENT_CODE_TIME)) {
+            error = "A patient cannot have two observations of the same code at the same effective time";
+        }
+        return error != null ? new IllegalArgumentException(error, ex) : ex;
+    }
+
+    private boolean mightBeTaken(String value, BloomFilter filter) {
+        return value != null && (!loaded || filter.mightContain(value));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.TimeSeriesProperties;
+import org.example.dto.TimeSeriesStoreStats;
+import org.example.event.ObservationsRecordedEvent;
+import org.example.event.PatientChangedEvent;
+import org.example.repository.ObservationRepository;
+import org.example.timeseries.ObservationPoint;
+import org.example.timeseries.ObservationSample;
+import org.example.timeseries.TimeSeriesStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serves recent numeric observation series from a compressed {@link TimeSeriesStore}
+ * and older windows from the database.
+ * <p>
+ * The store is warmed from the database with the samples inside the retention window
+ * once the application is ready, then follows observation writes through
+ * {@link ObservationsRecordedEvent}s delivered after commit. Until the warm-up finishes
+ * every read goes to the database. A sample committed while the warm-up runs can reach
+ * the store both ways, so the warm-up skips the samples the listener has already applied.
+ * Size and read sources are published as {@code observation.store.*} metrics.
+ */
+@Slf4j
+@Component
+class RecentObservationStore {
+
+    private final boolean enabled;
+    private final TimeSeriesProperties properties;
+    private final TimeSeriesStore store;
+    private final ObservationRepository observationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter memoryReads;
+    private final Counter databaseReads;
+    private final Counter mixedReads;
+    /** Samples applied by the listener until the warm-up finishes, with their number of applications. */
+    private volatile Map<AppliedSample, Integer> appliedBeforeWarmUp = new ConcurrentHashMap<>();
+
+    RecentObservationStore(TimeSeriesProperties properties, ObservationRepository observationRepository,
+                           MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.enabled = properties.isEnabled();
+        this.properties = properties;
+        this.store = new TimeSeriesStore(properties.getRetention(), properties.getBlockSpan(),
+                properties.getMaxMemory().toBytes(), properties.getMaxLateSamples(), Clock.systemDefaultZone());
+        this.observationRepository = observationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("observation.store.series", store, TimeSeriesStore::seriesCount).register(meterRegistry);
+        Gauge.builder("observation.store.samples", store, TimeSeriesStore::sampleCount).register(meterRegistry);
+        Gauge.builder("observation.store.size", store, TimeSeriesStore::sizeBytes).baseUnit("bytes").register(meterRegistry);
+        FunctionCounter.builder("observation.store.evictions", store, TimeSeriesStore::evictionCount).register(meterRegistry);
+        this.memoryReads = Counter.builder("observation.store.reads").tag("source", "memory").register(meterRegistry);
+        this.databaseReads = Counter.builder("observation.store.reads").tag("source", "database").register(meterRegistry);
+        this.mixedReads = Counter.builder("observation.store.reads").tag("source", "mixed").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            appliedBeforeWarmUp = null;
+            log.info("Observation store disabled");
+            return;
+        }
+        long startedAt = System.nanoTime();
+        LocalDateTime from = store.cutoff();
+        Map<AppliedSample, Integer> applied = appliedBeforeWarmUp;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ObservationSample> samples = observationRepository.streamNumericSince(from)) {
+                    samples.forEach(sample -> {
+                        if (!consume(applied, sample)) {
+                            append(sample);
+                        }
+                    });
+                }
+            });
+        } finally {
+            appliedBeforeWarmUp = null;
+        }
+        store.markComplete(from);
+        log.info("Observation store warmed up with {} samples in {} series ({} bytes) in {} ms",
+                store.sampleCount(), store.seriesCount(), store.sizeBytes(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onObservationsRecorded(ObservationsRecordedEvent event) {
+        if (enabled) {
+            Map<AppliedSample, Integer> applied = appliedBeforeWarmUp;
+            event.getSamples().forEach(sample -> {
+                // recorded before appending, so a warm-up reading the sample meanwhile skips it
+                if (applied != null) {
+                    applied.merge(AppliedSample.of(sample), 1, Integer::sum);
+                }
+                append(sample);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.getType() == PatientChangedEvent.Type.DELETED) {
+            store.removePatient(event.getPatientId());
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void expire() {
+        long released = store.expire();
+        if (released > 0) {
+            log.debug("Observation store released {} bytes past the retention window", released);
+        }
+    }
+
+    /**
+     * Emit the numeric samples of a series in [from, to) in time order, taking the part
+     * the store covers from memory and the rest from the database. Must run inside a
+     * transaction in case the database is read.
+     */
+    void read(UUID patientId, String code, LocalDateTime from, LocalDateTime to, Consumer<ObservationPoint> consumer) {
+        LocalDateTime covered = enabled ? store.coveredFrom(patientId, code) : null;
+        if (covered == null || !covered.isBefore(to)) {
+            databaseReads.increment();
+            readDatabase(patientId, code, from, to, consumer);
+            return;
+        }
+        if (from.isBefore(covered)) {
+            mixedReads.increment();
+            readDatabase(patientId, code, from, covered, consumer);
+            store.scan(patientId, code, covered, to, consumer);
+        } else {
+            memoryReads.increment();
+            store.scan(patientId, code, from, to, consumer);
+        }
+    }
+
+    TimeSeriesStoreStats stats(UUID patientId, int limit) {
+        return TimeSeriesStoreStats.builder()
+                .enabled(enabled)
+                .coveredFrom(store.completeFrom() == null ? null : later(store.completeFrom(), store.cutoff()))
+                .retention(properties.getRetention().toString())
+                .series(store.seriesCount())
+                .samples(store.sampleCount())
+                .bytes(store.sizeBytes())
+                .maxBytes(properties.getMaxMemory().toBytes())
+                .evictions(store.evictionCount())
+                .incompleteSeries(store.incompleteSeriesCount())
+                .largest(store.footprints(patientId, limit))
+                .build();
+    }
+
+    /**
+     * Take one application of the sample off the listener's record.
+     * @return whether the listener had applied it
+     */
+    private static boolean consume(Map<AppliedSample, Integer> applied, ObservationSample sample) {
+        if (applied.isEmpty()) {
+            return false;
+        }
+        boolean[] found = {false};
+        applied.computeIfPresent(AppliedSample.of(sample), (key, count) -> {
+            found[0] = true;
+            return count == 1 ? null : count - 1;
+        });
+        return found[0];
+    }
+
+    private void append(ObservationSample sample) {
+        store.append(sample.patientId(), sample.code(), sample.time(), sample.value(), sample.unit());
+    }
+
+    private void readDatabase(UUID patientId, String code, LocalDateTime from, LocalDateTime to, Consumer<ObservationPoint> consumer) {
+        try (Stream<ObservationPoint> samples = observationRepository.streamNumericSeries(patientId, code, from, to)) {
+            samples.forEach(consumer);
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * A sample as the store sees it; the database may keep the time at a different precision than the entity.
+     */
+    private record AppliedSample(UUID patientId, String code, LocalDateTime time, double value) {
+
+        static AppliedSample of(ObservationSample sample) {
+            return new AppliedSample(sample.patientId(), sample.code(), sample.time().truncatedTo(ChronoUnit.MILLIS), sample.value());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.service.impl;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CursorPage;
+import org.example.dto.EncounterResponse;
+import org.example.dto.ObservationResponse;
+import org.example.dto.TimelineEntry;
+import org.example.entity.Encounter;
+import org.example.entity.Observation;
+import org.example.exception.ResourceNotFoundException;
+import org.example.repository.EncounterRepository;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.example.service.TimelineService;
+import org.example.util.KeysetCursor;
+import org.example.util.MergingIterator;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private final PatientRepository patientRepository;
+    private final EncounterRepository encounterRepository;
+    private final ObservationRepository observationRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TimelineEntry> getTimeline(UUID patientId, LocalDateTime before, String after, int limit) {
+        log.debug("Fetching timeline for patient ID: {} before {} after cursor {}", patientId, before, after);
+
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        LocalDateTime cursorTime = cursor != null ? cursor.sortValueAsDateTime() : null;
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+
+        Specification<Encounter> encounters = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("patient").get("id"), patientId),
+                olderThan(criteriaBuilder, root.<LocalDateTime>get("start"), root.<UUID>get("id"), before, cursorTime, cursor));
+        Specification<Observation> observations = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("patient").get("id"), patientId),
+                olderThan(criteriaBuilder, root.<LocalDateTime>get("effectiveDateTime"), root.<UUID>get("id"), before, cursorTime, cursor));
+
+        // one row past the limit on each side tells whether another slice exists
+        try (Stream<Encounter> encounterRows = encounterRepository.findBy(encounters, query -> query
+                     .sortBy(Sort.by(Sort.Direction.DESC, "start", "id"))
+                     .limit(limit + 1)
+                     .stream());
+             Stream<ObservationResponse> observationRows = observationRepository.streamResponses(observations,
+                     Sort.by(Sort.Direction.DESC, "effectiveDateTime", "id"), limit + 1)) {
+
+            Iterator<TimelineEntry> merged = new MergingIterator<>(List.of(
+                    encounterRows.map(encounter -> TimelineEntry.of(EncounterResponse.of(encounter))).iterator(),
+                    observationRows.map(TimelineEntry::of).iterator()),
+                    TimelineEntry.NEWEST_FIRST);
+
+            List<TimelineEntry> rows = new ArrayList<>(limit + 1);
+            while (rows.size() <= limit && merged.hasNext()) {
+                rows.add(merged.next());
+            }
+            return CursorPage.fromRows(rows, limit, entry -> new KeysetCursor(entry.getTime().toString(), entry.getId()).encode());
+        }
+    }
+
+    private static Predicate olderThan(CriteriaBuilder criteriaBuilder, Path<LocalDateTime> time, Path<UUID> id,
+                                       LocalDateTime before, LocalDateTime cursorTime, KeysetCursor cursor) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (before != null) {
+            predicates.add(criteriaBuilder.lessThan(time, before));
+        }
+        if (cursor != null) {
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.lessThan(time, cursorTime),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(time, cursorTime),
+                            criteriaBuilder.lessThan(id, cursor.getId()))));
+        }
+        return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+    }
+}
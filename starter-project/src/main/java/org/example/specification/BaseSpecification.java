@@ -2,10 +2,12 @@ package org.example.specification;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.example.util.NameNormalizer;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
@@ -27,11 +29,8 @@ public class BaseSpecification<T> implements Specification<T> {
         List<Predicate> predicates = new ArrayList<>();
 
         for (SearchCriteria criteria : criteriaList) {
-            if (criteria.getOperation().equals(SearchOperation.MATCH)) {
-                predicates.add(builder.like(
-                        builder.lower(root.get(criteria.getKey())),
-                        "%" + criteria.getValue().toString().toLowerCase() + "%"
-                ));
+            if (criteria.getOperation().equals(SearchOperation.MATCH) || criteria.getOperation().equals(SearchOperation.PREFIX)) {
+                predicates.add(like(root, builder, criteria));
             } else if (criteria.getOperation().equals(SearchOperation.EQUAL)) {
                 predicates.add(builder.equal(
                         root.get(criteria.getKey()),
@@ -55,4 +54,26 @@ public class BaseSpecification<T> implements Specification<T> {
 
         return builder.and(predicates.toArray(new Predicate[0]));
     }
+
+    /**
+     * MATCH (contains) or PREFIX on a string attribute. An attribute with a normalized
+     * companion ({@code <key>Normalized}, e.g. {@code familyName}) is searched through it with
+     * the normalized value and no lower(), so the name indexes can serve the match.
+     */
+    private Predicate like(Root<T> root, CriteriaBuilder builder, SearchCriteria criteria) {
+        String value = criteria.getValue().toString();
+        String prefix = criteria.getOperation().equals(SearchOperation.MATCH) ? "%" : "";
+        String normalizedKey = criteria.getKey() + "Normalized";
+        Expression<String> path;
+        if (root.getModel().getAttributes().stream().anyMatch(attribute -> attribute.getName().equals(normalizedKey))) {
+            path = root.get(normalizedKey);
+            value = NameNormalizer.normalize(value);
+        } else if (criteria.getOperation().equals(SearchOperation.MATCH)) {
+            path = builder.lower(root.get(criteria.getKey()));
+            value = value.toLowerCase();
+        } else {
+            path = root.get(criteria.getKey());
+        }
+        return builder.like(path, prefix + PatientSpecifications.escapeLike(value) + "%", PatientSpecifications.LIKE_ESCAPE);
+    }
 }
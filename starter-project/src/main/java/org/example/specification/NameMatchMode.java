@@ -0,0 +1,32 @@
+package org.example.specification;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * How a name filter is matched against the normalized name columns.
+ * PREFIX and EXACT can use the b-tree indexes; CONTAINS needs a trigram index
+ * to avoid a full scan.
+ */
+public enum NameMatchMode {
+    PREFIX,
+    CONTAINS,
+    EXACT;
+
+    /**
+     * Parse a case-insensitive match mode request parameter.
+     * @throws IllegalArgumentException if the value is not a known mode
+     */
+    public static NameMatchMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return PREFIX;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported match mode '" + value + "'; expected one of "
+                    + Arrays.stream(values()).map(mode -> mode.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")));
+        }
+    }
+}
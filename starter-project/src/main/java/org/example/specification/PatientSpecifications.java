@@ -2,6 +2,7 @@ package org.example.specification;
 
 import jakarta.persistence.criteria.Predicate;
 import org.example.entity.Patient;
+import org.example.util.NameNormalizer;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
@@ -18,30 +19,57 @@ public class PatientSpecifications {
     private PatientSpecifications() {
     }
 
+    /** Escape character used for LIKE patterns built from user input. */
+    public static final char LIKE_ESCAPE = '\\';
+
     public static Specification<Patient> hasFamilyNameLike(String familyName) {
-        return (root, query, criteriaBuilder) -> {
-            if (familyName == null || familyName.trim().isEmpty()) {
-                return criteriaBuilder.conjunction();
-            }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("familyName")),
-                    "%" + familyName.toLowerCase() + "%"
-            );
-        };
+        return hasFamilyName(familyName, NameMatchMode.CONTAINS);
     }
 
     public static Specification<Patient> hasGivenNameLike(String givenName) {
+        return hasGivenName(givenName, NameMatchMode.CONTAINS);
+    }
+
+    public static Specification<Patient> hasFamilyName(String familyName, NameMatchMode mode) {
+        return nameMatches("familyNameNormalized", familyName, mode);
+    }
+
+    public static Specification<Patient> hasGivenName(String givenName, NameMatchMode mode) {
+        return nameMatches("givenNameNormalized", givenName, mode);
+    }
+
+    /**
+     * Matches against a normalized name column. The search term is normalized the same way
+     * as the stored value, so no lower() is applied to the column and its index stays usable.
+     */
+    private static Specification<Patient> nameMatches(String attribute, String name, NameMatchMode mode) {
         return (root, query, criteriaBuilder) -> {
-            if (givenName == null || givenName.trim().isEmpty()) {
+            if (name == null || name.trim().isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("givenName")),
-                    "%" + givenName.toLowerCase() + "%"
-            );
+            String normalized = NameNormalizer.normalize(name);
+            return switch (mode) {
+                case EXACT -> criteriaBuilder.equal(root.get(attribute), normalized);
+                case PREFIX -> criteriaBuilder.like(root.get(attribute), escapeLike(normalized) + "%", LIKE_ESCAPE);
+                case CONTAINS -> criteriaBuilder.like(root.get(attribute), "%" + escapeLike(normalized) + "%", LIKE_ESCAPE);
+            };
         };
     }
 
+    /**
+     * Escape LIKE wildcards so user input is always matched literally.
+     */
+    public static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
     public static Specification<Patient> hasIdentifier(String identifier) {
         return (root, query, criteriaBuilder) -> {
             if (identifier == null || identifier.trim().isEmpty()) {
@@ -62,9 +90,15 @@ public class PatientSpecifications {
 
     public static Specification<Patient> hasBirthDateBetween(LocalDate startDate, LocalDate endDate) {
         return (root, query, criteriaBuilder) -> {
-            if (startDate == null || endDate == null) {
+            if (startDate == null && endDate == null) {
                 return criteriaBuilder.conjunction();
             }
+            if (startDate == null) {
+                return criteriaBuilder.lessThanOrEqualTo(root.get("birthDate"), endDate);
+            }
+            if (endDate == null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("birthDate"), startDate);
+            }
             return criteriaBuilder.between(root.get("birthDate"), startDate, endDate);
         };
     }
@@ -16,6 +16,10 @@ public class SearchCriteria {
         return new SearchCriteria(key, SearchOperation.MATCH, value);
     }
 
+    public static SearchCriteria prefix(String key, String value) {
+        return new SearchCriteria(key, SearchOperation.PREFIX, value);
+    }
+
     public static SearchCriteria equal(String key, Object value) {
         return new SearchCriteria(key, SearchOperation.EQUAL, value);
     }
@@ -2,6 +2,7 @@ package org.example.specification;
 
 public enum SearchOperation {
     MATCH,
+    PREFIX,
     EQUAL,
     DATE_EQUAL,
     DATE_BETWEEN
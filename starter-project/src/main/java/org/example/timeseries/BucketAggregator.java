@@ -0,0 +1,129 @@
+package org.example.timeseries;
+
+import org.example.dto.ObservationSeriesPoint;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Folds time-ordered samples into min/max/avg/count per fixed-width bucket in a single
+ * pass, holding only the open bucket, so a series is downsampled without materializing
+ * its raw rows. Buckets are aligned to the epoch, so "1h" buckets start on the hour.
+ */
+public class BucketAggregator {
+
+    private static final Pattern SHORT_DURATION = Pattern.compile("(\\d+)([smhd])");
+
+    private final long bucketSeconds;
+    private final List<ObservationSeriesPoint> points = new ArrayList<>();
+
+    private long openBucket = Long.MIN_VALUE;
+    private long count;
+    private double min;
+    private double max;
+    private double sum;
+    private long samples;
+    private String unit;
+    private boolean mixedUnits;
+
+    public BucketAggregator(Duration bucket) {
+        this.bucketSeconds = bucket.getSeconds();
+        if (bucketSeconds < 1) {
+            throw new IllegalArgumentException("Bucket must be at least one second");
+        }
+    }
+
+    /**
+     * Add the next sample; samples must arrive in ascending time order.
+     */
+    public void add(ObservationPoint point) {
+        long bucketStart = Math.floorDiv(point.time().toEpochSecond(ZoneOffset.UTC), bucketSeconds) * bucketSeconds;
+        if (bucketStart != openBucket) {
+            if (bucketStart < openBucket) {
+                throw new IllegalStateException("Samples are not in time order");
+            }
+            close();
+            openBucket = bucketStart;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+        count++;
+        min = Math.min(min, point.value());
+        max = Math.max(max, point.value());
+        sum += point.value();
+        if (samples++ == 0) {
+            unit = point.unit();
+        } else if (!Objects.equals(unit, point.unit())) {
+            mixedUnits = true;
+        }
+    }
+
+    /**
+     * Close the open bucket and return every bucket seen so far.
+     */
+    public List<ObservationSeriesPoint> finish() {
+        close();
+        return points;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return the unit shared by every sample, or null if there is none or they differ
+     */
+    public String getUnit() {
+        return mixedUnits ? null : unit;
+    }
+
+    private void close() {
+        if (count == 0) {
+            return;
+        }
+        points.add(new ObservationSeriesPoint(LocalDateTime.ofEpochSecond(openBucket, 0, ZoneOffset.UTC),
+                count, min, max, sum / count));
+        count = 0;
+        sum = 0;
+    }
+
+    /**
+     * Parse a bucket width such as "30s", "5m", "1h", "1d" or an ISO-8601 duration ("PT15M").
+     * @throws IllegalArgumentException if the value is not a positive duration of whole seconds
+     */
+    public static Duration parseBucket(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Bucket is required");
+        }
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        Matcher matcher = SHORT_DURATION.matcher(trimmed);
+        Duration bucket;
+        try {
+            if (matcher.matches()) {
+                long amount = Long.parseLong(matcher.group(1));
+                bucket = switch (matcher.group(2)) {
+                    case "s" -> Duration.ofSeconds(amount);
+                    case "m" -> Duration.ofMinutes(amount);
+                    case "h" -> Duration.ofHours(amount);
+                    default -> Duration.ofDays(amount);
+                };
+            } else {
+                bucket = Duration.parse(trimmed.toUpperCase(Locale.ROOT));
+            }
+        } catch (DateTimeParseException | ArithmeticException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid bucket '" + value + "'; expected e.g. 30s, 5m, 1h, 1d or PT15M");
+        }
+        if (bucket.getSeconds() < 1 || bucket.getNano() != 0) {
+            throw new IllegalArgumentException("Invalid bucket '" + value + "'; must be a positive number of whole seconds");
+        }
+        return bucket;
+    }
+}
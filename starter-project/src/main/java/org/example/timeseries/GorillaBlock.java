@@ -0,0 +1,215 @@
+package org.example.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * An append-only block of samples compressed as in Facebook's Gorilla (VLDB 2015).
+ * Timestamps are stored as the delta of their delta to the previous sample with
+ * variable-length prefixes, so a regular sampling interval costs one bit per sample.
+ * Values are stored as the XOR with the previous value, keeping only the meaningful
+ * bits, so an unchanged value costs one bit and a slowly drifting one a dozen or so.
+ * <p>
+ * Samples must be appended in time order. Not thread-safe.
+ */
+final class GorillaBlock {
+
+    /** Approximate object, header and array overhead of a block, in bytes. */
+    private static final int OVERHEAD_BYTES = 96;
+
+    private long[] words = new long[4];
+    private long bitCount;
+    private int count;
+
+    private long firstTime;
+    private long lastTime;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeadingZeros = -1;
+    private int lastTrailingZeros;
+
+    void append(long timeMillis, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            writeBits(timeMillis, 64);
+            writeBits(valueBits, 64);
+            firstTime = timeMillis;
+        } else {
+            if (timeMillis < lastTime) {
+                throw new IllegalArgumentException("Samples must be appended in time order");
+            }
+            long delta = timeMillis - lastTime;
+            writeDeltaOfDelta(delta - lastDelta);
+            writeValue(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+        lastTime = timeMillis;
+        lastValueBits = valueBits;
+        count++;
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            writeBits(0b0, 1);
+        } else if (dod >= -63 && dod <= 64) {
+            writeBits(0b10, 2);
+            writeBits(dod + 63, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            writeBits(0b110, 3);
+            writeBits(dod + 255, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            writeBits(0b1110, 4);
+            writeBits(dod + 2047, 12);
+        } else if (dod >= Integer.MIN_VALUE && dod <= Integer.MAX_VALUE) {
+            writeBits(0b11110, 5);
+            writeBits(dod, 32);
+        } else {
+            writeBits(0b11111, 5);
+            writeBits(dod, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        writeBits(0b1, 1);
+        // the leading zero count is stored in 5 bits
+        int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailingZeros = Long.numberOfTrailingZeros(xor);
+        if (lastLeadingZeros >= 0 && leadingZeros >= lastLeadingZeros && trailingZeros >= lastTrailingZeros) {
+            // the meaningful bits fit the previous window
+            writeBits(0b0, 1);
+            writeBits(xor >>> lastTrailingZeros, 64 - lastLeadingZeros - lastTrailingZeros);
+        } else {
+            int significantBits = 64 - leadingZeros - trailingZeros;
+            writeBits(0b1, 1);
+            writeBits(leadingZeros, 5);
+            // 64 significant bits are written as 0
+            writeBits(significantBits & 63, 6);
+            writeBits(xor >>> trailingZeros, significantBits);
+            lastLeadingZeros = leadingZeros;
+            lastTrailingZeros = trailingZeros;
+        }
+    }
+
+    /**
+     * Decode the samples in [fromMillis, toMillis) in time order.
+     */
+    void forEach(long fromMillis, long toMillis, SampleConsumer consumer) {
+        if (count == 0 || lastTime < fromMillis || firstTime >= toMillis) {
+            return;
+        }
+        Reader reader = new Reader();
+        long time = reader.readBits(64);
+        long valueBits = reader.readBits(64);
+        long delta = 0;
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int i = 0; ; ) {
+            if (time >= toMillis) {
+                return;
+            }
+            if (time >= fromMillis) {
+                consumer.accept(time, Double.longBitsToDouble(valueBits));
+            }
+            if (++i == count) {
+                return;
+            }
+            delta += reader.readDeltaOfDelta();
+            time += delta;
+            if (reader.readBits(1) == 1) {
+                if (reader.readBits(1) == 1) {
+                    leadingZeros = (int) reader.readBits(5);
+                    int significantBits = (int) reader.readBits(6);
+                    if (significantBits == 0) {
+                        significantBits = 64;
+                    }
+                    trailingZeros = 64 - leadingZeros - significantBits;
+                }
+                valueBits ^= reader.readBits(64 - leadingZeros - trailingZeros) << trailingZeros;
+            }
+        }
+    }
+
+    /**
+     * Release the unused tail of the buffer once no more samples will be appended.
+     */
+    void seal() {
+        words = Arrays.copyOf(words, (int) ((bitCount + 63) >>> 6));
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTime() {
+        return firstTime;
+    }
+
+    long lastTime() {
+        return lastTime;
+    }
+
+    long sizeBytes() {
+        return OVERHEAD_BYTES + (long) words.length * Long.BYTES;
+    }
+
+    private void writeBits(long value, int bits) {
+        while (bits > 0) {
+            int index = (int) (bitCount >>> 6);
+            if (index == words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int free = 64 - (int) (bitCount & 63);
+            int chunk = Math.min(free, bits);
+            long part = (value >>> (bits - chunk)) & mask(chunk);
+            words[index] |= part << (free - chunk);
+            bitCount += chunk;
+            bits -= chunk;
+        }
+    }
+
+    private static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    @FunctionalInterface
+    interface SampleConsumer {
+        void accept(long timeMillis, double value);
+    }
+
+    private final class Reader {
+
+        private long position;
+
+        long readBits(int bits) {
+            long result = 0;
+            while (bits > 0) {
+                int available = 64 - (int) (position & 63);
+                int chunk = Math.min(available, bits);
+                long part = (words[(int) (position >>> 6)] >>> (available - chunk)) & mask(chunk);
+                result = chunk == 64 ? part : (result << chunk) | part;
+                position += chunk;
+                bits -= chunk;
+            }
+            return result;
+        }
+
+        long readDeltaOfDelta() {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            if (readBits(1) == 0) {
+                return readBits(7) - 63;
+            }
+            if (readBits(1) == 0) {
+                return readBits(9) - 255;
+            }
+            if (readBits(1) == 0) {
+                return readBits(12) - 2047;
+            }
+            return readBits(1) == 0 ? (int) readBits(32) : readBits(64);
+        }
+    }
+}
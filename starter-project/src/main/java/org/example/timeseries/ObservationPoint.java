@@ -0,0 +1,9 @@
+package org.example.timeseries;
+
+import java.time.LocalDateTime;
+
+/**
+ * One numeric sample of an observation series.
+ */
+public record ObservationPoint(LocalDateTime time, double value, String unit) {
+}
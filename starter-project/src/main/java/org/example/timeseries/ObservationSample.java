@@ -0,0 +1,10 @@
+package org.example.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A numeric observation value with the series it belongs to.
+ */
+public record ObservationSample(UUID patientId, String code, LocalDateTime time, double value, String unit) {
+}
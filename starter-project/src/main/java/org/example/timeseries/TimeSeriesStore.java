@@ -0,0 +1,437 @@
+package org.example.timeseries;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory store of recent numeric observations, one series per (patient, code),
+ * compressed into {@link GorillaBlock}s that each span a fixed, epoch-aligned stretch
+ * of time. Blocks older than the retention window are dropped whole.
+ * <p>
+ * Samples arriving out of time order are kept uncompressed beside the blocks and merged
+ * on read. The store is bounded by memory: past the limit, the least recently used
+ * series are evicted. An evicted series gets a watermark just past the newest sample it
+ * held; it is kept again from there on, and older parts of it are read from the database.
+ * Watermarks are dropped once the retention window has moved past them.
+ * <p>
+ * The store only answers for time it holds completely: from {@link #markComplete} (the
+ * start of what was loaded at warm-up), the retention cutoff or the series' watermark,
+ * whichever is latest.
+ */
+public class TimeSeriesStore {
+
+    /** Approximate overhead of a series and its map entry, in bytes. */
+    private static final int SERIES_OVERHEAD_BYTES = 256;
+    /** Approximate size of an uncompressed out-of-order sample, in bytes. */
+    private static final int LATE_SAMPLE_BYTES = 48;
+
+    private final Duration retention;
+    private final long blockSpanMillis;
+    private final long maxBytes;
+    private final int maxLateSamples;
+    private final Clock clock;
+
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    /** Per evicted series, the time (epoch millis) from which it is complete again. */
+    private final Map<SeriesKey, Long> watermarks = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile LocalDateTime completeFrom;
+
+    public TimeSeriesStore(Duration retention, Duration blockSpan, long maxBytes, int maxLateSamples, Clock clock) {
+        this.retention = retention;
+        this.blockSpanMillis = blockSpan.toMillis();
+        this.maxBytes = maxBytes;
+        this.maxLateSamples = maxLateSamples;
+        this.clock = clock;
+        if (blockSpanMillis < 1) {
+            throw new IllegalArgumentException("Block span must be positive");
+        }
+    }
+
+    /**
+     * Declare that every sample at or after {@code from} has been appended, enabling reads.
+     */
+    public void markComplete(LocalDateTime from) {
+        this.completeFrom = from;
+    }
+
+    /**
+     * The retention cutoff: older samples are neither stored nor served.
+     */
+    public LocalDateTime cutoff() {
+        return LocalDateTime.now(clock).minus(retention);
+    }
+
+    public void append(UUID patientId, String code, LocalDateTime time, double value, String unit) {
+        long timeMillis = toMillis(time);
+        if (timeMillis < toMillis(cutoff())) {
+            return;
+        }
+        SeriesKey key = new SeriesKey(patientId, code);
+        Series target;
+        boolean overflowed;
+        while (true) {
+            // older samples of an evicted series are served from the database
+            Long watermark = watermarks.get(key);
+            if (watermark != null && timeMillis < watermark) {
+                return;
+            }
+            target = series.computeIfAbsent(key, k -> {
+                bytes.addAndGet(SERIES_OVERHEAD_BYTES);
+                return new Series(k);
+            });
+            synchronized (target) {
+                // an expired series was unlinked after we looked it up; retry on a fresh one
+                if (target.removed) {
+                    continue;
+                }
+                long before = target.sizeBytes();
+                overflowed = !target.append(timeMillis, value, unit);
+                bytes.addAndGet(target.sizeBytes() - before);
+            }
+            break;
+        }
+        if (overflowed) {
+            evict(target, timeMillis);
+        }
+        if (bytes.get() > maxBytes) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * The start of the time this store can answer for a series, or null if it is not
+     * warmed up yet.
+     */
+    public LocalDateTime coveredFrom(UUID patientId, String code) {
+        LocalDateTime from = completeFrom;
+        if (from == null) {
+            return null;
+        }
+        LocalDateTime cutoff = cutoff();
+        if (cutoff.isAfter(from)) {
+            from = cutoff;
+        }
+        Long watermark = watermarks.get(new SeriesKey(patientId, code));
+        if (watermark != null && toMillis(from) < watermark) {
+            from = toTime(watermark);
+        }
+        return from;
+    }
+
+    /**
+     * Emit the samples of a series in [from, to) in time order. Only meaningful for
+     * the covered part of the series, see {@link #coveredFrom}.
+     */
+    public void scan(UUID patientId, String code, LocalDateTime from, LocalDateTime to, Consumer<ObservationPoint> consumer) {
+        Series target = series.get(new SeriesKey(patientId, code));
+        if (target == null) {
+            return;
+        }
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        List<ObservationPoint> points = new ArrayList<>();
+        synchronized (target) {
+            target.lastAccess = System.nanoTime();
+            String unit = target.mixedUnits ? null : target.unit;
+            target.forEach(fromMillis, toMillis, (time, value) -> points.add(new ObservationPoint(toTime(time), value, unit)));
+        }
+        points.forEach(consumer);
+    }
+
+    public void removePatient(UUID patientId) {
+        series.keySet().removeIf(key -> {
+            if (!key.patientId().equals(patientId)) {
+                return false;
+            }
+            release(series.get(key));
+            return true;
+        });
+        watermarks.keySet().removeIf(key -> key.patientId().equals(patientId));
+    }
+
+    /**
+     * Drop the blocks, out-of-order samples and watermarks that fell out of the retention window.
+     * @return the number of bytes released
+     */
+    public long expire() {
+        long cutoffMillis = toMillis(cutoff());
+        // past the cutoff the series is complete again anyway
+        watermarks.values().removeIf(watermark -> watermark <= cutoffMillis);
+        long released = 0;
+        for (Series target : series.values()) {
+            synchronized (target) {
+                long before = target.sizeBytes();
+                target.expire(cutoffMillis);
+                released += before - target.sizeBytes();
+                bytes.addAndGet(target.sizeBytes() - before);
+                if (target.isEmpty() && series.remove(target.key, target)) {
+                    target.removed = true;
+                    bytes.addAndGet(-SERIES_OVERHEAD_BYTES);
+                    released += SERIES_OVERHEAD_BYTES;
+                }
+            }
+        }
+        return released;
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    public long sizeBytes() {
+        return bytes.get();
+    }
+
+    public long sampleCount() {
+        return series.values().stream().mapToLong(target -> {
+            synchronized (target) {
+                return target.sampleCount();
+            }
+        }).sum();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Number of evicted series whose older samples are still read from the database.
+     */
+    public int incompleteSeriesCount() {
+        return watermarks.size();
+    }
+
+    public LocalDateTime completeFrom() {
+        return completeFrom;
+    }
+
+    /**
+     * Per-series footprint, largest first.
+     * @param patientId Only the series of this patient, or null for all
+     * @param limit Maximum number of series
+     */
+    public List<SeriesFootprint> footprints(UUID patientId, int limit) {
+        return series.values().stream()
+                .filter(target -> patientId == null || target.key.patientId().equals(patientId))
+                .map(target -> {
+                    synchronized (target) {
+                        return target.footprint();
+                    }
+                })
+                .sorted(Comparator.comparingLong(SeriesFootprint::bytes).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        // evict down to 90% of the limit so eviction does not run on every append
+        long target = maxBytes / 10 * 9;
+        // sort a snapshot: lastAccess keeps changing under concurrent reads and appends
+        List<EvictionCandidate> candidates = new ArrayList<>(series.size());
+        series.values().forEach(candidate -> candidates.add(new EvictionCandidate(candidate, candidate.lastAccess)));
+        candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccess));
+        for (EvictionCandidate candidate : candidates) {
+            if (bytes.get() <= target) {
+                break;
+            }
+            evict(candidate.series(), Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * @param rejectedMillis Time of a sample the series could not take, or {@code Long.MIN_VALUE}
+     */
+    private void evict(Series target, long rejectedMillis) {
+        synchronized (target) {
+            if (target.removed) {
+                return;
+            }
+            // set before unlinking, so no reader sees the series gone without its watermark
+            watermarks.merge(target.key, Math.max(rejectedMillis, target.lastTime()) + 1, Math::max);
+            if (!series.remove(target.key, target)) {
+                return;
+            }
+            target.removed = true;
+            bytes.addAndGet(-target.sizeBytes() - SERIES_OVERHEAD_BYTES);
+        }
+        evictions.incrementAndGet();
+    }
+
+    private void release(Series target) {
+        if (target == null) {
+            return;
+        }
+        synchronized (target) {
+            target.removed = true;
+            bytes.addAndGet(-target.sizeBytes() - SERIES_OVERHEAD_BYTES);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private record SeriesKey(UUID patientId, String code) {
+    }
+
+    private record LateSample(long time, double value) {
+    }
+
+    private record EvictionCandidate(Series series, long lastAccess) {
+    }
+
+    /**
+     * Memory footprint of one series. {@code bitsPerSample} counts the compressed blocks
+     * only; an uncompressed sample takes 128 bits.
+     */
+    public record SeriesFootprint(UUID patientId, String code, String unit, long samples, int blocks, int lateSamples,
+                                  long bytes, double bitsPerSample, LocalDateTime first, LocalDateTime last) {
+    }
+
+    private final class Series {
+
+        private final SeriesKey key;
+        private final Deque<GorillaBlock> blocks = new ArrayDeque<>();
+        private final List<LateSample> late = new ArrayList<>();
+        private long openBlockEnd = Long.MIN_VALUE;
+        private String unit;
+        private boolean mixedUnits;
+        private boolean removed;
+        private volatile long lastAccess = System.nanoTime();
+
+        Series(SeriesKey key) {
+            this.key = key;
+        }
+
+        /**
+         * @return false if the series has too many out-of-order samples to stay complete
+         */
+        boolean append(long timeMillis, double value, String sampleUnit) {
+            lastAccess = System.nanoTime();
+            if (isEmpty()) {
+                unit = sampleUnit;
+            } else if (!Objects.equals(unit, sampleUnit)) {
+                mixedUnits = true;
+            }
+
+            GorillaBlock open = blocks.peekLast();
+            if (open != null && timeMillis < open.lastTime()) {
+                if (late.size() >= maxLateSamples) {
+                    return false;
+                }
+                int index = lateInsertionPoint(timeMillis);
+                late.add(index, new LateSample(timeMillis, value));
+                return true;
+            }
+            if (open == null || timeMillis >= openBlockEnd) {
+                if (open != null) {
+                    open.seal();
+                }
+                open = new GorillaBlock();
+                blocks.addLast(open);
+                openBlockEnd = (Math.floorDiv(timeMillis, blockSpanMillis) + 1) * blockSpanMillis;
+            }
+            open.append(timeMillis, value);
+            return true;
+        }
+
+        void forEach(long fromMillis, long toMillis, GorillaBlock.SampleConsumer consumer) {
+            int[] next = {lateInsertionPoint(fromMillis)};
+            for (GorillaBlock block : blocks) {
+                block.forEach(fromMillis, toMillis, (time, value) -> {
+                    while (next[0] < late.size() && late.get(next[0]).time() < time) {
+                        LateSample sample = late.get(next[0]++);
+                        consumer.accept(sample.time(), sample.value());
+                    }
+                    consumer.accept(time, value);
+                });
+            }
+            for (int i = next[0]; i < late.size() && late.get(i).time() < toMillis; i++) {
+                consumer.accept(late.get(i).time(), late.get(i).value());
+            }
+        }
+
+        void expire(long cutoffMillis) {
+            while (!blocks.isEmpty() && blocks.peekFirst().lastTime() < cutoffMillis) {
+                blocks.removeFirst();
+            }
+            late.subList(0, lateInsertionPoint(cutoffMillis)).clear();
+        }
+
+        boolean isEmpty() {
+            return blocks.isEmpty() && late.isEmpty();
+        }
+
+        /**
+         * Time of the newest sample; out-of-order samples are always older than the open block's last.
+         */
+        long lastTime() {
+            long last = blocks.isEmpty() ? Long.MIN_VALUE : blocks.peekLast().lastTime();
+            return late.isEmpty() ? last : Math.max(last, late.get(late.size() - 1).time());
+        }
+
+        long sampleCount() {
+            return blocks.stream().mapToLong(GorillaBlock::count).sum() + late.size();
+        }
+
+        long sizeBytes() {
+            return blocks.stream().mapToLong(GorillaBlock::sizeBytes).sum() + (long) late.size() * LATE_SAMPLE_BYTES;
+        }
+
+        SeriesFootprint footprint() {
+            long compressed = blocks.stream().mapToLong(GorillaBlock::count).sum();
+            long blockBytes = blocks.stream().mapToLong(GorillaBlock::sizeBytes).sum();
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            if (!blocks.isEmpty()) {
+                first = blocks.peekFirst().firstTime();
+                last = blocks.peekLast().lastTime();
+            }
+            if (!late.isEmpty()) {
+                first = Math.min(first, late.get(0).time());
+                last = Math.max(last, late.get(late.size() - 1).time());
+            }
+            return new SeriesFootprint(key.patientId(), key.code(), mixedUnits ? null : unit, compressed + late.size(),
+                    blocks.size(), late.size(), sizeBytes() + SERIES_OVERHEAD_BYTES,
+                    compressed == 0 ? 0 : Math.round(blockBytes * 8.0 / compressed * 10) / 10.0,
+                    isEmpty() ? null : toTime(first), isEmpty() ? null : toTime(last));
+        }
+
+        /**
+         * Index of the first out-of-order sample at or after the given time.
+         */
+        private int lateInsertionPoint(long timeMillis) {
+            int low = 0;
+            int high = late.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (late.get(mid).time() < timeMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
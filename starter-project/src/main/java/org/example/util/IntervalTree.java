@@ -0,0 +1,92 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable augmented interval tree over closed intervals [start, end].
+ * The intervals are sorted by start and laid out as an implicit balanced binary tree
+ * (the middle of each range is its root). Every node also records the greatest end in
+ * its subtree, which lets a stabbing query skip subtrees that end before the query
+ * window. Finding the k intervals that overlap a window costs O(log n + k).
+ */
+public final class IntervalTree<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final Object[] values;
+
+    private IntervalTree(long[] starts, long[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new long[starts.length];
+        computeMaxEnds(0, starts.length);
+    }
+
+    /**
+     * Build a tree from the given intervals. Use {@link Long#MAX_VALUE} as the end of an open interval.
+     * @throws IllegalArgumentException if an interval ends before it starts
+     */
+    public static <T> IntervalTree<T> of(Collection<T> items, ToLongFunction<T> start, ToLongFunction<T> end) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(start));
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = start.applyAsLong(sorted.get(i));
+            ends[i] = end.applyAsLong(sorted.get(i));
+            if (ends[i] < starts[i]) {
+                throw new IllegalArgumentException("Interval ends before it starts: " + sorted.get(i));
+            }
+        }
+        return new IntervalTree<>(starts, ends, sorted.toArray());
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * The intervals that share at least one point with [from, to], in start order.
+     */
+    public List<T> overlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(0, starts.length, from, to, result);
+        return result;
+    }
+
+    private long computeMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        maxEnds[mid] = Math.max(ends[mid], Math.max(computeMaxEnds(lo, mid), computeMaxEnds(mid + 1, hi)));
+        return maxEnds[mid];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int lo, int hi, long from, long to, List<T> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) {
+            // everything in this subtree ends before the window
+            return;
+        }
+        collect(lo, mid, from, to, result);
+        if (starts[mid] > to) {
+            // this interval and everything to its right start after the window
+            return;
+        }
+        if (ends[mid] >= from) {
+            result.add((T) values[mid]);
+        }
+        collect(mid + 1, hi, from, to, result);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.util;
+
+import java.io.IOException;
+
+/**
+ * Receives the elements of a streamed result one at a time, typically to serialize them
+ * to the response as they are read from a database cursor.
+ */
+@FunctionalInterface
+public interface ItemSink<T> {
+    void accept(T item) throws IOException;
+}
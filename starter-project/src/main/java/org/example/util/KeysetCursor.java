@@ -0,0 +1,65 @@
+package org.example.util;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset pagination cursor: the sort key of the last row returned plus its
+ * {@code id} as the tiebreaker, encoded as URL-safe Base64.
+ */
+@Value
+public class KeysetCursor {
+
+    private static final char SEPARATOR = '\u0000';
+
+    String sortValue;
+    UUID id;
+
+    public String encode() {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The sort key of a cursor over a timestamp column.
+     * @throws IllegalArgumentException if the sort key is not an ISO date-time
+     */
+    public LocalDateTime sortValueAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortValue);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + encode(), ex);
+        }
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}.
+     * @param cursor The opaque cursor, or a blank value for the first page
+     * @return The decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        UUID id;
+        int separator;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            separator = raw.lastIndexOf(SEPARATOR);
+            id = separator < 0 ? null : UUID.fromString(raw.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new KeysetCursor(raw.substring(0, separator), id);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.util;
+
+import org.example.dto.PatientFetchPlan;
+import org.example.dto.PatientResponse;
+import org.example.dto.PatientVersion;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Strong entity tags for patient records, built from the patient id, its {@code @Version},
+ * the version of its child records and the fetch plan of the representation:
+ * {@code "<id>:<version>.<childrenVersion>:<plan>"}.
+ */
+public final class PatientETag {
+
+    private PatientETag() {
+    }
+
+    public static String of(UUID id, Long version, Long childrenVersion, PatientFetchPlan plan) {
+        return "\"" + id + ":" + version + "." + childrenVersion + ":" + plan.code() + "\"";
+    }
+
+    public static String of(UUID id, PatientVersion version, PatientFetchPlan plan) {
+        return of(id, version.getVersion(), version.getChildrenVersion(), plan);
+    }
+
+    public static String of(PatientResponse patient, PatientFetchPlan plan) {
+        return of(patient.getId(), patient.getVersion(), patient.getChildrenVersion(), plan);
+    }
+
+    /**
+     * Weak comparison against an If-None-Match header, which may list several tags or be {@code *}.
+     */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versions of the given patient accepted by an If-Match header, compared strongly: weak tags
+     * and tags of other patients are ignored. Returns null for {@code *}, which any version satisfies.
+     * Only the demographics version is returned: an update replaces demographics, so child
+     * records written since the tag was issued do not make it fail.
+     */
+    public static Set<Long> acceptedVersions(String ifMatch, UUID id) {
+        Set<Long> versions = new HashSet<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String[] parts = tag.substring(1, tag.length() - 1).split(":");
+            if (parts.length == 3 && parts[0].equals(id.toString())) {
+                try {
+                    int childrenVersion = parts[1].indexOf('.');
+                    versions.add(Long.parseLong(childrenVersion < 0 ? parts[1] : parts[1].substring(0, childrenVersion)));
+                } catch (NumberFormatException ignored) {
+                    // not one of our tags, cannot match
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a numeric value and optional unit out of a free-text observation value,
+ * e.g. "72", "72 bpm", "-1.5", "5.4 mmol/L". Anything else ("120/80", "&lt;5",
+ * "positive") is not a quantity and is left to the string column alone.
+ */
+public final class QuantityParser {
+
+    public static final int MAX_UNIT_LENGTH = 32;
+
+    private static final Pattern QUANTITY = Pattern.compile("^\\s*([-+]?\\d+(?:\\.\\d+)?)\\s*([^\\d\\s/.,+-][^\\d]*?)?\\s*$");
+
+    private QuantityParser() {
+    }
+
+    /**
+     * @return the parsed quantity, or null if the value is not a number with an optional unit
+     */
+    public static Quantity parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = QUANTITY.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String unit = matcher.group(2);
+        if (unit != null && unit.length() > MAX_UNIT_LENGTH) {
+            return null;
+        }
+        return new Quantity(Double.parseDouble(matcher.group(1)), unit);
+    }
+
+    public record Quantity(double value, String unit) {
+    }
+}
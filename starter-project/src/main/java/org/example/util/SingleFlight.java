@@ -0,0 +1,116 @@
+package org.example.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load and every
+ * caller that asks for the key while it is running waits for and shares its result, or
+ * its exception. A key is forgotten as soon as its load completes, so nothing is cached.
+ * <p>
+ * About {@code maxInFlight} keys are tracked at once; callers of further keys load on their own.
+ * A limit of zero disables coalescing. Loads must not ask for their own key.
+ */
+public final class SingleFlight<K, V> {
+
+    private final int maxInFlight;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public SingleFlight(int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("Maximum in-flight keys must not be negative");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Run the load for the key, or wait for the one already running.
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> running = inFlight.get(key);
+        if (running == null) {
+            if (inFlight.size() >= maxInFlight) {
+                bypassed.increment();
+                return loader.get();
+            }
+            CompletableFuture<V> own = new CompletableFuture<>();
+            running = inFlight.putIfAbsent(key, own);
+            if (running == null) {
+                executed.increment();
+                return run(key, own, loader);
+            }
+        }
+        coalesced.increment();
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            // rethrow what the load threw, so callers see the same exception as the one that ran it
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private V run(K key, CompletableFuture<V> own, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(ex);
+            throw ex;
+        }
+        inFlight.remove(key, own);
+        own.complete(value);
+        return value;
+    }
+
+    /**
+     * Make later callers of the key start a new load instead of joining the running one,
+     * such as after a write that the running load may have missed.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * {@link #forget} every key.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Publish {@code coalescing.loads} counters, tagged with the name and an outcome of
+     * executed, coalesced or bypassed, and a {@code coalescing.in_flight} gauge.
+     */
+    public SingleFlight<K, V> bindTo(MeterRegistry registry, String name) {
+        loads(registry, name, "executed", executed);
+        loads(registry, name, "coalesced", coalesced);
+        loads(registry, name, "bypassed", bypassed);
+        Gauge.builder("coalescing.in_flight", inFlight, Map::size).tag("name", name).register(registry);
+        return this;
+    }
+
+    private static void loads(MeterRegistry registry, String name, String outcome, LongAdder count) {
+        FunctionCounter.builder("coalescing.loads", count, LongAdder::sum)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
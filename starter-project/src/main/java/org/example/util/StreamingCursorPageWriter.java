@@ -0,0 +1,58 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ApiResponse;
+import org.example.dto.CursorPage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a successful {@link ApiResponse} around a {@link CursorPage} one element at a time,
+ * so that only the element being serialized and the generator's buffer are on the heap. The
+ * output has the same shape as the buffered response; {@code message} and the page metadata
+ * are written after the content, once they are known.
+ * <p>
+ * The generator only writes to the stream when its buffer fills, so a failure before the first
+ * few kilobytes leaves the response uncommitted and the usual error response is sent instead.
+ * A later failure can only cut the response short.
+ */
+public class StreamingCursorPageWriter<T> implements ItemSink<T> {
+
+    private final JsonGenerator generator;
+
+    public StreamingCursorPageWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeBooleanField("success", true);
+        generator.writeObjectFieldStart("data");
+        generator.writeArrayFieldStart("content");
+    }
+
+    @Override
+    public void accept(T item) throws IOException {
+        generator.writeObject(item);
+    }
+
+    /**
+     * Close the content and write the page metadata and the message.
+     * @param page Metadata of the page that was streamed; its content is ignored
+     * @param message Envelope message
+     */
+    public void finish(CursorPage<T> page, String message) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("size", page.getSize());
+        generator.writeBooleanField("hasNext", page.isHasNext());
+        if (page.getNextCursor() != null) {
+            generator.writeStringField("nextCursor", page.getNextCursor());
+        }
+        if (page.getApproximateTotal() != null) {
+            generator.writeNumberField("approximateTotal", page.getApproximateTotal());
+        }
+        generator.writeEndObject();
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+        generator.close();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.util;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Orders UUIDs the way PostgreSQL and H2 compare their {@code uuid} columns: as unsigned
+ * 128-bit numbers. {@link UUID#compareTo} compares the two halves as signed longs, so ids
+ * with the top bit of a half set sort first in Java but last in SQL; in-memory ordering that
+ * has to agree with an {@code id < ?} keyset or an {@code ORDER BY id} uses this instead.
+ */
+public final class UuidOrder {
+
+    public static final Comparator<UUID> UNSIGNED = UuidOrder::compare;
+
+    private UuidOrder() {
+    }
+
+    public static int compare(UUID a, UUID b) {
+        int byHigh = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
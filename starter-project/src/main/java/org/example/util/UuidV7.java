@@ -0,0 +1,43 @@
+package org.example.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond
+ * timestamp, a 12-bit counter that keeps ids created in the same millisecond in
+ * order, and 62 random bits. Ids from one JVM are strictly increasing; across
+ * JVMs they are ordered to the millisecond.
+ * <p>
+ * The timestamp and counter are advanced with a compare-and-set loop instead of a
+ * lock so that generating threads (including virtual threads) never block.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /** Last issued (timestamp << 12 | counter). */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        long next = LAST.updateAndGet(last -> {
+            long now = System.currentTimeMillis() << COUNTER_BITS;
+            // same or earlier millisecond (clock step back): bump the counter, which
+            // rolls over into the timestamp after 4096 ids in one millisecond
+            return now > last ? now : last + 1;
+        });
+        long timestamp = next >>> COUNTER_BITS;
+        long counter = next & COUNTER_MASK;
+
+        // random bits only need to be unique, not unguessable: the timestamp is public anyway
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (timestamp << 16) | (0x7L << 12) | counter;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineEntryTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 1, 1, 8, 30);
+
+    @Test
+    void breaksTiesByUnsignedIdDescendingLikeTheKeyset() {
+        TimelineEntry low = entry(UUID.fromString("7fffffff-ffff-7fff-bfff-ffffffffffff"));
+        TimelineEntry high = entry(UUID.fromString("80000000-0000-7000-8000-000000000000"));
+        TimelineEntry later = TimelineEntry.builder().time(TIME.plusSeconds(1)).id(low.getId()).build();
+
+        List<TimelineEntry> entries = new ArrayList<>(List.of(low, later, high));
+        entries.sort(TimelineEntry.NEWEST_FIRST);
+
+        // id < cursor.id in SQL continues after "high" with "low"
+        assertThat(entries).containsExactly(later, high, low);
+    }
+
+    private static TimelineEntry entry(UUID id) {
+        return TimelineEntry.builder().type(TimelineEntry.Type.OBSERVATION).time(TIME).id(id).build();
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.service.impl;
+
+import org.example.export.ExportFormat;
+import org.example.service.ExportService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a million patients from a database through the real repository stream, read-only
+ * transaction and persistence context, and checks that the heap does not grow with the rows
+ * written. The database is an H2 file, so the seeded rows are not on the heap themselves.
+ * Surefire runs with {@code -Xmx256m}, so retaining the rows or their entities fails with
+ * OutOfMemoryError.
+ * <p>
+ * The heap is sampled after a GC every {@value #SAMPLE_EVERY} rows. Growth is measured from
+ * the first sample, once the query, the driver's result buffer and the writer are set up.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-heap-test/db;CACHE_SIZE=4096",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.timeseries.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportServiceHeapTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    // 900k retained rows take a few hundred megabytes
+    private static final long MAX_HEAP_GROWTH = 16L << 20;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @BeforeAll
+    void seed() {
+        Timestamp updated = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 8, 30));
+        String[] genders = {"FEMALE", "MALE", "OTHER", "UNKNOWN"};
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{new UUID(0x01a0_0000_0000_7000L, i), "MRN-" + i, "Given" + i, "Family" + i,
+                    "given" + i, "family" + i, LocalDate.of(1950, 1, 1).plusDays(i % 20_000), genders[i % genders.length],
+                    "user" + i, "user" + i + "@example.org", updated, updated});
+            if (batch.size() == INSERT_BATCH) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO patients (id, identifier, given_name, family_name, given_name_norm, family_name_norm, "
+                + "birth_date, gender, username, email, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", batch);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    void exportsAMillionPatientsInConstantHeap(ExportFormat format) throws IOException {
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        long written = exportService.exportPatients(null, format, out);
+
+        assertThat(written).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(format == ExportFormat.CSV ? ROWS + 1 : ROWS);
+        assertThat(out.samples).isEqualTo(ROWS / SAMPLE_EVERY);
+        assertThat(out.peak - out.first).as("heap growth while exporting %,d patients as %s", ROWS, format)
+                .isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Discards what is written, counting lines and sampling the heap every
+     * {@link #SAMPLE_EVERY} lines while the export is running.
+     */
+    private final class HeapSamplingOutputStream extends OutputStream {
+
+        private long first;
+        private long peak;
+        private long lines;
+        private int samples;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                line();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    line();
+                }
+            }
+        }
+
+        private void line() {
+            if (++lines % SAMPLE_EVERY == 0) {
+                long used = usedHeapAfterGc();
+                if (samples++ == 0) {
+                    first = used;
+                }
+                peak = Math.max(peak, used);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.entity.Patient;
+import org.example.export.ExportFormat;
+import org.example.export.PatientExportRow;
+import org.example.repository.EncounterRepository;
+import org.example.repository.ObservationRepository;
+import org.example.repository.PatientRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceImplTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 1, 8, 30);
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final ExportServiceImpl exportService = new ExportServiceImpl(patientRepository,
+            mock(EncounterRepository.class), mock(ObservationRepository.class),
+            JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    void writesOneRowPerLine(ExportFormat format) throws IOException {
+        when(patientRepository.streamForExport(null)).thenReturn(Stream.of(row(1), row(2)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPatients(null, format, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        if (format == ExportFormat.CSV) {
+            assertThat(lines).hasSize(4);
+            assertThat(lines[0]).startsWith("id,identifier,givenName,familyName,");
+            assertThat(lines[1]).contains(",MRN-1,Given1,Family1,");
+        } else {
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).startsWith("{\"id\":").contains("\"identifier\":\"MRN-1\"", "\"updatedAt\":\"2025-01-01T08:30:00\"");
+            assertThat(lines[1]).contains("\"identifier\":\"MRN-2\"");
+        }
+        // every row ends its line, including the last
+        assertThat(lines[lines.length - 1]).isEmpty();
+    }
+
+    private static PatientExportRow row(long index) {
+        return new PatientExportRow(new UUID(index, ~index), "MRN-" + index, "Given" + index, "Family" + index,
+                LocalDate.of(1950, 1, 1).plusDays(index % 20_000), Patient.Gender.values()[(int) (index % Patient.Gender.values().length)],
+                "user" + index, "user" + index + "@example.org", UPDATED, UPDATED);
+    }
+}
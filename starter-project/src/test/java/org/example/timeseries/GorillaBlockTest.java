@@ -0,0 +1,122 @@
+package org.example.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GorillaBlockTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void roundTripsRegularVitals() {
+        Random random = new Random(1);
+        List<long[]> samples = new ArrayList<>();
+        long time = START;
+        double value = 72;
+        for (int i = 0; i < 2_000; i++) {
+            // minute readings with occasional jitter and a drifting value
+            time += 60_000 + (random.nextInt(10) == 0 ? random.nextInt(2_000) - 1_000 : 0);
+            value += random.nextInt(3) - 1;
+            samples.add(new long[]{time, Double.doubleToRawLongBits(value)});
+        }
+
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsIrregularTimesAndExtremeValues() {
+        double[] values = {0.0, -0.0, 1.5, -1.5, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 98.6, 98.6, 98.6, 1e-300, 123456789.123};
+        // every delta-of-delta encoding: 0, 7, 9, 12, 32 and 64 bits
+        long[] deltas = {0, 0, 50, 300, 2_500, 5_000_000, 5_000_000, 60_000, 10_000_000_000L, 1, 1, 1, 0, 3_000_000_000_000L};
+        List<long[]> samples = new ArrayList<>();
+        long time = START;
+        for (int i = 0; i < values.length; i++) {
+            time += deltas[i];
+            samples.add(new long[]{time, Double.doubleToRawLongBits(values[i])});
+        }
+
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsAfterSealing() {
+        GorillaBlock block = new GorillaBlock();
+        for (int i = 0; i < 500; i++) {
+            block.append(START + i * 1_000L, i % 7);
+        }
+        block.seal();
+
+        List<double[]> decoded = decode(block, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(decoded).hasSize(500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(decoded.get(i)).containsExactly(START + i * 1_000L, i % 7);
+        }
+    }
+
+    @Test
+    void decodesOnlyTheRequestedRange() {
+        GorillaBlock block = new GorillaBlock();
+        for (int i = 0; i < 10; i++) {
+            block.append(START + i * 1_000L, i);
+        }
+
+        List<double[]> decoded = decode(block, START + 3_000, START + 6_000);
+
+        assertThat(decoded).extracting(sample -> sample[1]).containsExactly(3.0, 4.0, 5.0);
+        assertThat(decode(block, START + 10_000, START + 20_000)).isEmpty();
+        assertThat(decode(block, START - 5_000, START)).isEmpty();
+    }
+
+    @Test
+    void rejectsOutOfOrderSamples() {
+        GorillaBlock block = new GorillaBlock();
+        block.append(START, 1);
+        block.append(START + 1_000, 2);
+
+        assertThatThrownBy(() -> block.append(START + 999, 3)).isInstanceOf(IllegalArgumentException.class);
+        // the rejected sample leaves the block intact
+        block.append(START + 1_000, 4);
+        assertThat(decode(block, Long.MIN_VALUE, Long.MAX_VALUE)).extracting(sample -> sample[1]).containsExactly(1.0, 2.0, 4.0);
+        assertThat(block.count()).isEqualTo(3);
+    }
+
+    @Test
+    void compressesARegularConstantSeriesToAboutTwoBitsPerSample() {
+        GorillaBlock block = new GorillaBlock();
+        for (int i = 0; i < 10_000; i++) {
+            block.append(START + i * 60_000L, 36.6);
+        }
+        block.seal();
+
+        // one bit for the timestamp and one for the value, plus the first sample and overhead
+        assertThat(block.sizeBytes()).isLessThan(10_000 * 2 / 8 + 200);
+    }
+
+    private static void assertRoundTrip(List<long[]> samples) {
+        GorillaBlock block = new GorillaBlock();
+        samples.forEach(sample -> block.append(sample[0], Double.longBitsToDouble(sample[1])));
+
+        List<long[]> decoded = new ArrayList<>();
+        block.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (time, value) -> decoded.add(new long[]{time, Double.doubleToRawLongBits(value)}));
+
+        assertThat(decoded).hasSameSizeAs(samples);
+        for (int i = 0; i < samples.size(); i++) {
+            assertThat(decoded.get(i)).as("sample %d", i).containsExactly(samples.get(i));
+        }
+        assertThat(block.firstTime()).isEqualTo(samples.get(0)[0]);
+        assertThat(block.lastTime()).isEqualTo(samples.get(samples.size() - 1)[0]);
+    }
+
+    private static List<double[]> decode(GorillaBlock block, long from, long to) {
+        List<double[]> decoded = new ArrayList<>();
+        block.forEach(from, to, (time, value) -> decoded.add(new double[]{time, value}));
+        return decoded;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSeriesStoreTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+    private static final String HEART_RATE = "8867-4";
+
+    private final UUID patient = UUID.randomUUID();
+
+    @Test
+    void mergesOutOfOrderSamplesIntoTimeOrder() {
+        TimeSeriesStore store = store(1 << 20, 16);
+        store.markComplete(NOW.minusDays(1));
+        for (int minute : new int[]{0, 10, 20, 5, 30, 15, 25, 1}) {
+            store.append(patient, HEART_RATE, NOW.minusHours(1).plusMinutes(minute), minute, "/min");
+        }
+
+        assertThat(values(store, NOW.minusHours(2), NOW)).containsExactly(0.0, 1.0, 5.0, 10.0, 15.0, 20.0, 25.0, 30.0);
+        assertThat(values(store, NOW.minusHours(1).plusMinutes(5), NOW.minusHours(1).plusMinutes(20))).containsExactly(5.0, 10.0, 15.0);
+    }
+
+    @Test
+    void evictedSeriesIsKeptAgainFromItsWatermark() {
+        TimeSeriesStore store = store(1 << 20, 2);
+        store.markComplete(NOW.minusDays(1));
+        LocalDateTime start = NOW.minusHours(5);
+        store.append(patient, HEART_RATE, start.plusMinutes(10), 1, "/min");
+        // three out-of-order samples overflow the limit of two and evict the series
+        for (int minute = 1; minute <= 3; minute++) {
+            store.append(patient, HEART_RATE, start.plusMinutes(minute), 0, "/min");
+        }
+        assertThat(store.evictionCount()).isEqualTo(1);
+        assertThat(store.coveredFrom(patient, HEART_RATE)).isEqualTo(start.plusMinutes(10).plusNanos(1_000_000));
+
+        // older samples belong to the database from now on; newer ones are kept again
+        store.append(patient, HEART_RATE, start.plusMinutes(5), 0, "/min");
+        store.append(patient, HEART_RATE, start.plusMinutes(20), 2, "/min");
+        store.append(patient, HEART_RATE, start.plusMinutes(30), 3, "/min");
+
+        assertThat(values(store, store.coveredFrom(patient, HEART_RATE), NOW)).containsExactly(2.0, 3.0);
+        assertThat(store.incompleteSeriesCount()).isEqualTo(1);
+    }
+
+    @Test
+    void watermarkExpiresWithTheRetentionWindow() {
+        MutableClock clock = new MutableClock(NOW);
+        TimeSeriesStore store = new TimeSeriesStore(Duration.ofHours(24), Duration.ofHours(2), 1 << 20, 0, clock);
+        store.markComplete(NOW.minusDays(1));
+        store.append(patient, HEART_RATE, NOW.minusHours(1), 1, "/min");
+        store.append(patient, HEART_RATE, NOW.minusHours(2), 0, "/min");
+        assertThat(store.incompleteSeriesCount()).isEqualTo(1);
+
+        clock.now = NOW.plusDays(1);
+        store.expire();
+
+        assertThat(store.incompleteSeriesCount()).isZero();
+        assertThat(store.coveredFrom(patient, HEART_RATE)).isEqualTo(store.cutoff());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSeriesPastTheMemoryLimit() {
+        TimeSeriesStore store = store(16 * 1024, 16);
+        store.markComplete(NOW.minusDays(1));
+        List<UUID> patients = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.randomUUID();
+            patients.add(id);
+            for (int minute = 0; minute < 5; minute++) {
+                store.append(id, HEART_RATE, NOW.minusHours(3).plusMinutes(minute), i, "/min");
+            }
+        }
+
+        assertThat(store.sizeBytes()).isLessThanOrEqualTo(16 * 1024);
+        assertThat(store.evictionCount()).isPositive();
+        // the newest series survive, the oldest were evicted and read from the database
+        assertThat(store.coveredFrom(patients.get(199), HEART_RATE)).isEqualTo(NOW.minusDays(1));
+        assertThat(store.coveredFrom(patients.get(0), HEART_RATE)).isAfter(NOW.minusHours(3));
+    }
+
+    private static TimeSeriesStore store(long maxBytes, int maxLateSamples) {
+        return new TimeSeriesStore(Duration.ofDays(3), Duration.ofHours(2), maxBytes, maxLateSamples,
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private List<Double> values(TimeSeriesStore store, LocalDateTime from, LocalDateTime to) {
+        List<Double> values = new ArrayList<>();
+        store.scan(patient, HEART_RATE, from, to, point -> values.add(point.value()));
+        return values;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private LocalDateTime now;
+
+        MutableClock(LocalDateTime now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now.toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED = 100_000;
+
+    @Test
+    void alwaysContainsWhatWasPut() {
+        BloomFilter filter = BloomFilter.create(EXPECTED, 0.01);
+        for (int i = 0; i < EXPECTED; i++) {
+            filter.put("MRN-" + i);
+        }
+
+        for (int i = 0; i < EXPECTED; i++) {
+            assertThat(filter.mightContain("MRN-" + i)).as("MRN-%d", i).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        for (double rate : new double[]{0.01, 0.001}) {
+            BloomFilter filter = BloomFilter.create(EXPECTED, rate);
+            for (int i = 0; i < EXPECTED; i++) {
+                filter.put("MRN-" + i);
+            }
+
+            int probes = 1_000_000;
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain("absent-" + i)) {
+                    falsePositives++;
+                }
+            }
+            double observed = (double) falsePositives / probes;
+            assertThat(observed).as("false positive rate configured as %s", rate).isBetween(rate * 0.5, rate * 1.5);
+            assertThat(filter.expectedFalsePositiveRate()).isBetween(rate * 0.5, rate * 1.5);
+        }
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(10, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
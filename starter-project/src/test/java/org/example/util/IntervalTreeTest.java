@@ -0,0 +1,96 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+    private record Span(String name, long start, long end) {
+    }
+
+    @Test
+    void findsNothingInAnEmptyTree() {
+        IntervalTree<Span> tree = tree(List.of());
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.overlapping(Long.MIN_VALUE, Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void matchesOpenIntervalsEndingAtMaxValue() {
+        Span open = new Span("open", 100, Long.MAX_VALUE);
+        Span closed = new Span("closed", 0, 50);
+        IntervalTree<Span> tree = tree(List.of(open, closed));
+
+        assertThat(tree.overlapping(1_000_000, 2_000_000)).containsExactly(open);
+        assertThat(tree.overlapping(Long.MAX_VALUE, Long.MAX_VALUE)).containsExactly(open);
+        assertThat(tree.overlapping(0, 99)).containsExactly(closed);
+    }
+
+    @Test
+    void treatsTouchingEndpointsAsOverlapping() {
+        Span morning = new Span("morning", 8, 12);
+        Span afternoon = new Span("afternoon", 12, 17);
+        IntervalTree<Span> tree = tree(List.of(morning, afternoon));
+
+        // closed intervals: a shared endpoint is a shared point
+        assertThat(tree.overlapping(12, 12)).containsExactly(morning, afternoon);
+        assertThat(tree.overlapping(17, 20)).containsExactly(afternoon);
+        assertThat(tree.overlapping(0, 8)).containsExactly(morning);
+        assertThat(tree.overlapping(18, 20)).isEmpty();
+        assertThat(tree.overlapping(0, 7)).isEmpty();
+    }
+
+    @Test
+    void findsEveryIntervalSharingAStart() {
+        Span point = new Span("point", 10, 10);
+        Span shortSpan = new Span("short", 10, 11);
+        Span longSpan = new Span("long", 10, 100);
+        IntervalTree<Span> tree = tree(List.of(longSpan, point, shortSpan));
+
+        assertThat(tree.overlapping(10, 10)).containsExactlyInAnyOrder(point, shortSpan, longSpan);
+        assertThat(tree.overlapping(11, 50)).containsExactlyInAnyOrder(shortSpan, longSpan);
+        assertThat(tree.overlapping(12, 12)).containsExactly(longSpan);
+    }
+
+    @Test
+    void rejectsIntervalsEndingBeforeTheyStart() {
+        assertThatThrownBy(() -> tree(List.of(new Span("backwards", 5, 4))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void agreesWithALinearScan() {
+        Random random = new Random(42);
+        List<Span> spans = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(10_000);
+            long end = random.nextInt(10) == 0 ? Long.MAX_VALUE : start + random.nextInt(200);
+            spans.add(new Span("s" + i, start, end));
+        }
+        IntervalTree<Span> tree = tree(spans);
+
+        for (int i = 0; i < 1_000; i++) {
+            long from = random.nextInt(10_500);
+            long to = from + random.nextInt(300);
+            List<Span> expected = spans.stream()
+                    .filter(span -> span.start() <= to && span.end() >= from)
+                    .sorted(Comparator.comparingLong(Span::start))
+                    .toList();
+            List<Span> found = tree.overlapping(from, to);
+            assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(found).isSortedAccordingTo(Comparator.comparingLong(Span::start));
+        }
+    }
+
+    private static IntervalTree<Span> tree(List<Span> spans) {
+        return IntervalTree.of(spans, Span::start, Span::end);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final UUID ID = UUID.fromString("01920c4e-8c3a-7b21-9f00-123456789abc");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"smith", "", "O'Brien-Ødegård", "a/b+c=d?e&f", "2025-01-01T08:30:00.123456"})
+    void decodesWhatItEncodes(String sortValue) {
+        KeysetCursor cursor = new KeysetCursor(sortValue, ID);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void readsTimestampSortValues() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 8, 30, 0, 123_456_000);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(time.toString(), ID).encode());
+
+        assertThat(cursor.sortValueAsDateTime()).isEqualTo(time);
+    }
+
+    @Test
+    void treatsABlankTokenAsTheFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "%%%"})
+    void rejectsTokensThatAreNotBase64(String token) {
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: " + token);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"smith", "smith\u0000not-a-uuid", "smith\u0000", "\u0000"})
+    void rejectsTokensWithoutAnId(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: " + token);
+    }
+
+    @Test
+    void rejectsATimestampCursorOverAnotherSortKey() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("smith", ID).encode());
+
+        assertThatThrownBy(cursor::sortValueAsDateTime)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor: ");
+    }
+}
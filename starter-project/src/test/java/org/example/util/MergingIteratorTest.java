@@ -0,0 +1,88 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergingIteratorTest {
+
+    @Test
+    void mergesSortedSourcesInOrder() {
+        MergingIterator<Integer> merged = new MergingIterator<>(
+                List.of(List.of(1, 4, 7).iterator(), List.of(2, 5).iterator(), List.of(3, 6, 8, 9).iterator()),
+                Comparator.naturalOrder());
+
+        assertThat(drain(merged)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void pullsOnlyTheHeadsAndWhatIsTaken() {
+        CountingIterator a = new CountingIterator(List.of(1, 3, 5, 7, 9));
+        CountingIterator b = new CountingIterator(List.of(2, 4, 6, 8, 10));
+        CountingIterator c = new CountingIterator(List.of(100, 200));
+
+        MergingIterator<Integer> merged = new MergingIterator<>(List.of(a, b, c), Comparator.naturalOrder());
+        assertThat(a.pulled + b.pulled + c.pulled).isEqualTo(3);
+
+        assertThat(merged.next()).isEqualTo(1);
+        assertThat(merged.next()).isEqualTo(2);
+        assertThat(merged.next()).isEqualTo(3);
+
+        // n + k: three taken, three heads held, the source that never won is not advanced
+        assertThat(a.pulled + b.pulled + c.pulled).isEqualTo(6);
+        assertThat(c.pulled).isEqualTo(1);
+    }
+
+    @Test
+    void skipsEmptySourcesAndContinuesPastExhaustedOnes() {
+        MergingIterator<Integer> merged = new MergingIterator<>(
+                List.of(Collections.<Integer>emptyIterator(), List.of(1).iterator(), List.of(2, 3, 4).iterator()),
+                Comparator.naturalOrder());
+
+        assertThat(drain(merged)).containsExactly(1, 2, 3, 4);
+        assertThat(merged.hasNext()).isFalse();
+        assertThatThrownBy(merged::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void hasNothingWithoutSources() {
+        assertThat(new MergingIterator<Integer>(List.of(), Comparator.naturalOrder()).hasNext()).isFalse();
+        assertThat(new MergingIterator<>(List.of(Collections.<Integer>emptyIterator(), Collections.<Integer>emptyIterator()),
+                Comparator.<Integer>naturalOrder()).hasNext()).isFalse();
+    }
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        return values;
+    }
+
+    private static final class CountingIterator implements Iterator<Integer> {
+
+        private final Iterator<Integer> delegate;
+        private int pulled;
+
+        private CountingIterator(List<Integer> values) {
+            this.delegate = values.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            pulled++;
+            return delegate.next();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int WAITERS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsTheLoadOnceForConcurrentCallersOfTheSameKey() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(16).bindTo(registry, "test");
+        AtomicInteger runs = new AtomicInteger();
+        BlockingLoad<String> load = new BlockingLoad<>(() -> "value-" + runs.incrementAndGet());
+
+        Future<String> first = executor.submit(() -> flight.load("key", load));
+        load.awaitStarted();
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(() -> flight.load("key", () -> "value-" + runs.incrementAndGet())));
+        }
+        awaitLoads("coalesced", WAITERS);
+        load.release();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        for (Future<String> waiter : waiters) {
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        }
+        assertThat(runs).hasValue(1);
+        assertThat(loads("executed")).isEqualTo(1);
+    }
+
+    @Test
+    void waitersSeeTheExceptionOfTheLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(16).bindTo(registry, "test");
+        IllegalStateException failure = new IllegalStateException("database down");
+        BlockingLoad<String> load = new BlockingLoad<>(() -> {
+            throw failure;
+        });
+
+        Future<String> first = executor.submit(() -> flight.load("key", load));
+        load.awaitStarted();
+        Future<String> waiter = executor.submit(() -> flight.load("key", () -> "unused"));
+        awaitLoads("coalesced", 1);
+        load.release();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void forgetsTheKeyOnceTheLoadCompletes() {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(16).bindTo(registry, "test");
+
+        assertThat(flight.load("key", () -> "first")).isEqualTo("first");
+        assertThat(inFlight()).isZero();
+        assertThat(flight.load("key", () -> "second")).isEqualTo("second");
+        assertThatThrownBy(() -> flight.load("key", () -> {
+            throw new IllegalArgumentException();
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(flight.load("key", () -> "third")).isEqualTo("third");
+
+        assertThat(loads("executed")).isEqualTo(4);
+        assertThat(loads("coalesced")).isZero();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void loadsFurtherKeysOnTheirOwnAtTheLimit() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(1).bindTo(registry, "test");
+        BlockingLoad<String> load = new BlockingLoad<>(() -> "a");
+
+        Future<String> first = executor.submit(() -> flight.load("a", load));
+        load.awaitStarted();
+
+        assertThat(flight.load("b", () -> "b")).isEqualTo("b");
+        assertThat(loads("bypassed")).isEqualTo(1);
+        assertThat(inFlight()).isEqualTo(1);
+
+        load.release();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+    }
+
+    @Test
+    void coalescesNothingWithAZeroLimit() {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(0).bindTo(registry, "test");
+
+        assertThat(flight.load("key", () -> "value")).isEqualTo("value");
+        assertThat(loads("bypassed")).isEqualTo(1);
+        assertThat(loads("executed")).isZero();
+    }
+
+    @Test
+    void startsANewLoadAfterForgettingARunningOne() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<String, String>(16).bindTo(registry, "test");
+        BlockingLoad<String> stale = new BlockingLoad<>(() -> "stale");
+
+        Future<String> first = executor.submit(() -> flight.load("key", stale));
+        stale.awaitStarted();
+        flight.forget("key");
+
+        BlockingLoad<String> fresh = new BlockingLoad<>(() -> "fresh");
+        Future<String> second = executor.submit(() -> flight.load("key", fresh));
+        fresh.awaitStarted();
+        Future<String> waiter = executor.submit(() -> flight.load("key", () -> "unused"));
+        awaitLoads("coalesced", 1);
+
+        // the stale load completing must not drop the fresh load that replaced it
+        stale.release();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(inFlight()).isEqualTo(1);
+
+        fresh.release();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("fresh");
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("fresh");
+        assertThat(loads("executed")).isEqualTo(2);
+        assertThat(inFlight()).isZero();
+    }
+
+    private double loads(String outcome) {
+        return registry.get("coalescing.loads").tag("outcome", outcome).functionCounter().count();
+    }
+
+    private double inFlight() {
+        return registry.get("coalescing.in_flight").gauge().value();
+    }
+
+    /** Waiters count themselves before they block, so this returns once they are all waiting. */
+    private void awaitLoads(String outcome, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads(outcome) < count) {
+            assertThat(System.nanoTime()).as("%d %s loads", count, outcome).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    /** A load that signals when it has started and finishes only once released. */
+    private static final class BlockingLoad<V> implements Supplier<V> {
+
+        private final Supplier<V> result;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private BlockingLoad(Supplier<V> result) {
+            this.result = result;
+        }
+
+        @Override
+        public V get() {
+            started.countDown();
+            try {
+                if (!released.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("load was never released");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            return result.get();
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertThat(started.await(5, TimeUnit.SECONDS)).as("load started").isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
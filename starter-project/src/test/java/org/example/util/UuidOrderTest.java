@@ -0,0 +1,33 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidOrderTest {
+
+    @Test
+    void comparesBothHalvesUnsigned() {
+        UUID low = UUID.fromString("7fffffff-ffff-7fff-bfff-ffffffffffff");
+        UUID highMsb = UUID.fromString("80000000-0000-4000-8000-000000000000");
+        UUID highLsb = UUID.fromString("7fffffff-ffff-7fff-ffff-ffffffffffff");
+
+        // signed comparison sees both high halves as negative
+        assertThat(highMsb.compareTo(low)).isNegative();
+        assertThat(UuidOrder.compare(highMsb, low)).isPositive();
+        assertThat(UuidOrder.compare(highLsb, low)).isPositive();
+        assertThat(UuidOrder.compare(low, low)).isZero();
+    }
+
+    @Test
+    void agreesWithSqlOrderOfTheCanonicalForm() {
+        // the database compares uuids byte by byte, which is the order of their hex strings
+        for (int i = 0; i < 1000; i++) {
+            UUID a = UUID.randomUUID();
+            UUID b = UUID.randomUUID();
+            assertThat(Integer.signum(UuidOrder.compare(a, b))).isEqualTo(Integer.signum(a.toString().compareTo(b.toString())));
+        }
+    }
+}
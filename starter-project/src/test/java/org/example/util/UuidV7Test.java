@@ -0,0 +1,81 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void setsVersionAndVariantBits() {
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UuidV7.randomUuid();
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void carriesTheCurrentUnixMillisecond() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.randomUuid();
+        long after = System.currentTimeMillis();
+
+        // more than 4096 ids in a millisecond carry the counter into the timestamp, so after
+        // a burst (such as another test's) the timestamp may run slightly ahead of the clock
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    void increasesWithinOneMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7.randomUuid());
+        }
+
+        int sameMillisecond = 0;
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertThat(UuidOrder.compare(current, previous)).as("%s after %s", current, previous).isPositive();
+            if (current.getMostSignificantBits() >>> 16 == previous.getMostSignificantBits() >>> 16) {
+                sameMillisecond++;
+            }
+        }
+        // 100k ids take a few milliseconds, so most of them share one with their predecessor
+        assertThat(sameMillisecond).isGreaterThan(ids.size() / 2);
+    }
+
+    @Test
+    void staysUniqueAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<UUID>>> batches = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                batches.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(UuidV7.randomUuid());
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> batch : batches) {
+                all.addAll(batch.get());
+            }
+            assertThat(all).hasSize(8 * 20_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}